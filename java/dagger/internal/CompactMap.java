@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map that stores its keys and values in parallel arrays, in insertion order.
+ *
+ * <p>The keys of a multibound map are known when the component is created, so a {@link MapFactory}
+ * computes a {@link KeyIndex} once and shares it with every map it returns. Each map then only
+ * needs an array of values, instead of a hash table with one entry object per key.
+ *
+ * <p>Lookups use an open-addressed table of array indices. If all of the keys are constants of a
+ * single enum, the table is indexed by {@link Enum#ordinal()} instead, like an {@link
+ * java.util.EnumMap}, but the map still iterates in insertion order.
+ *
+ * <p>The {@link #keySet()} and {@link #values()} views read the arrays directly, so iterating them
+ * does not allocate an entry per element. The map serializes as an unmodifiable {@link
+ * LinkedHashMap}, like the maps that Dagger returned before.
+ */
+final class CompactMap<K, V> extends AbstractMap<K, V> implements Serializable {
+  private final KeyIndex<K> keys;
+  private final Object[] values;
+
+  /** Returns an immutable copy of {@code map}, which must not contain {@code null} keys. */
+  static <K, V> Map<K, V> copyOf(Map<K, V> map) {
+    Object[] keys = new Object[map.size()];
+    Object[] values = new Object[map.size()];
+    int i = 0;
+    for (Entry<K, V> entry : map.entrySet()) {
+      keys[i] = entry.getKey();
+      values[i] = entry.getValue();
+      i++;
+    }
+    return new CompactMap<K, V>(KeyIndex.<K>of(keys), values);
+  }
+
+  /**
+   * Creates a map from {@code keys} to {@code values}. The map takes ownership of {@code values},
+   * which must not be modified afterwards.
+   */
+  CompactMap(KeyIndex<K> keys, Object[] values) {
+    assert keys.size() == values.length;
+    this.keys = keys;
+    this.values = values;
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return keys.indexOf(key) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    for (Object v : values) {
+      if (value == null ? v == null : value.equals(v)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked") // values only ever contains Vs
+  @Override
+  public V get(Object key) {
+    int index = keys.indexOf(key);
+    return index < 0 ? null : (V) values[index];
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new AbstractSet<K>() {
+      @Override
+      public Iterator<K> iterator() {
+        return new IndexIterator<K>() {
+          @Override
+          K get(int index) {
+            return keys.get(index);
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object key) {
+        return containsKey(key);
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return new IndexIterator<V>() {
+          @SuppressWarnings("unchecked") // values only ever contains Vs
+          @Override
+          V get(int index) {
+            return (V) values[index];
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object value) {
+        return containsValue(value);
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<Entry<K, V>>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new IndexIterator<Entry<K, V>>() {
+          @SuppressWarnings("unchecked") // values only ever contains Vs
+          @Override
+          Entry<K, V> get(int index) {
+            return new SimpleImmutableEntry<K, V>(keys.get(index), (V) values[index]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  // equals() and hashCode() read the arrays, instead of creating an entry per key as AbstractMap's
+  // implementations do.
+
+  @Override
+  public boolean equals(Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof Map)) {
+      return false;
+    }
+    Map<?, ?> that = (Map<?, ?>) object;
+    if (that.size() != values.length) {
+      return false;
+    }
+    try {
+      for (int i = 0; i < values.length; i++) {
+        Object key = keys.get(i);
+        Object value = values[i];
+        if (value == null
+            ? that.get(key) != null || !that.containsKey(key)
+            : !value.equals(that.get(key))) {
+          return false;
+        }
+      }
+    } catch (ClassCastException | NullPointerException unused) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      hashCode += keys.get(i).hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+    return hashCode;
+  }
+
+  /** Serializes this map as an unmodifiable {@link LinkedHashMap} with the same entries. */
+  private Object writeReplace() {
+    return Collections.unmodifiableMap(new LinkedHashMap<K, V>(this));
+  }
+
+  private static final long serialVersionUID = 0;
+
+  /** Iterates over the indices of the arrays, and returns an element for each index. */
+  private abstract class IndexIterator<E> implements Iterator<E> {
+    private int next;
+
+    @Override
+    public boolean hasNext() {
+      return next < values.length;
+    }
+
+    @Override
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return get(next++);
+    }
+
+    /** Returns the element for {@code index}. */
+    abstract E get(int index);
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /** The keys of a {@link CompactMap}, and a table to find the index of each one. */
+  abstract static class KeyIndex<K> {
+    private final Object[] keys;
+
+    KeyIndex(Object[] keys) {
+      this.keys = keys;
+    }
+
+    /** Returns an index of {@code keys}, which must not contain {@code null} or duplicates. */
+    static <K> KeyIndex<K> of(Collection<K> keys) {
+      return of(keys.toArray());
+    }
+
+    private static <K> KeyIndex<K> of(Object[] keys) {
+      for (Object key : keys) {
+        checkNotNull(key, "key");
+      }
+      return areConstantsOfOneEnum(keys)
+          ? new EnumKeyIndex<K>(keys)
+          : new HashedKeyIndex<K>(keys);
+    }
+
+    private static boolean areConstantsOfOneEnum(Object[] keys) {
+      if (keys.length == 0 || !(keys[0] instanceof Enum)) {
+        return false;
+      }
+      Class<?> enumClass = ((Enum<?>) keys[0]).getDeclaringClass();
+      for (Object key : keys) {
+        if (!(key instanceof Enum) || ((Enum<?>) key).getDeclaringClass() != enumClass) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    final int size() {
+      return keys.length;
+    }
+
+    @SuppressWarnings("unchecked") // keys only ever contains Ks
+    final K get(int index) {
+      return (K) keys[index];
+    }
+
+    final boolean isKeyAt(int index, Object key) {
+      Object candidate = keys[index];
+      return candidate == key || candidate.equals(key);
+    }
+
+    /** Returns the index of {@code key}, or {@code -1} if it is not one of the keys. */
+    abstract int indexOf(Object key);
+  }
+
+  /**
+   * A {@link KeyIndex} that uses an open-addressed hash table with linear probing. The table is
+   * kept at most half full so that probe sequences stay short.
+   */
+  private static final class HashedKeyIndex<K> extends KeyIndex<K> {
+    /** Each slot holds one more than the index of a key, or 0 if it is empty. */
+    private final int[] table;
+    private final int mask;
+
+    HashedKeyIndex(Object[] keys) {
+      super(keys);
+      this.table = new int[tableSize(keys.length)];
+      this.mask = table.length - 1;
+      for (int i = 0; i < keys.length; i++) {
+        int slot = smear(keys[i].hashCode()) & mask;
+        while (table[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = i + 1;
+      }
+    }
+
+    private static int tableSize(int size) {
+      int tableSize = 2;
+      while (tableSize < size * 2) {
+        tableSize <<= 1;
+      }
+      return tableSize;
+    }
+
+    /** Spreads the bits of {@code hashCode} so that keys with similar hash codes don't collide. */
+    private static int smear(int hashCode) {
+      return 0x1b873593 * Integer.rotateLeft(hashCode * 0xcc9e2d51, 15);
+    }
+
+    @Override
+    int indexOf(Object key) {
+      if (key == null) {
+        return -1;
+      }
+      for (int slot = smear(key.hashCode()) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+        int index = table[slot] - 1;
+        if (isKeyAt(index, key)) {
+          return index;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /** A {@link KeyIndex} for constants of a single enum, indexed by {@link Enum#ordinal()}. */
+  private static final class EnumKeyIndex<K> extends KeyIndex<K> {
+    private final Class<?> enumClass;
+    /** Maps each ordinal to one more than the index of that constant, or 0 if it is not a key. */
+    private final int[] indicesByOrdinal;
+
+    EnumKeyIndex(Object[] keys) {
+      super(keys);
+      this.enumClass = ((Enum<?>) keys[0]).getDeclaringClass();
+      int maxOrdinal = 0;
+      for (Object key : keys) {
+        maxOrdinal = Math.max(maxOrdinal, ((Enum<?>) key).ordinal());
+      }
+      this.indicesByOrdinal = new int[maxOrdinal + 1];
+      for (int i = 0; i < keys.length; i++) {
+        indicesByOrdinal[((Enum<?>) keys[i]).ordinal()] = i + 1;
+      }
+    }
+
+    @Override
+    int indexOf(Object key) {
+      if (!(key instanceof Enum) || ((Enum<?>) key).getDeclaringClass() != enumClass) {
+        return -1;
+      }
+      int ordinal = ((Enum<?>) key).ordinal();
+      return ordinal < indicesByOrdinal.length ? indicesByOrdinal[ordinal] - 1 : -1;
+    }
+  }
+}
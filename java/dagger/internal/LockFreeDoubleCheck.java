@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.Lazy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import javax.inject.Provider;
+
+/**
+ * A {@link Lazy} and {@link Provider} implementation that memoizes the value returned from a
+ * delegate, like {@link DoubleCheck}, but without ever holding a monitor.
+ *
+ * <p>All of the state lives in a single field, which holds either the pending delegate, a claim by
+ * the thread that is currently calling the delegate, or the memoized instance. Once the instance
+ * has been published, {@link #get()} is a single read of that field. On first access, one thread
+ * claims the initialization with a compare-and-set and every other thread parks until it is done.
+ * Because no thread ever blocks inside a {@code synchronized} block, a virtual thread that has to
+ * wait for a slow initialization does not pin its carrier thread.
+ *
+ * <p>If the delegate throws, the claim is released and the next call tries again, as with {@link
+ * DoubleCheck}. Recursive calls from the initializing thread are handled with {@link
+ * DoubleCheck#reentrantCheck(Object, Object)}.
+ */
+@GwtIncompatible
+public final class LockFreeDoubleCheck<T> implements Provider<T>, Lazy<T> {
+  @SuppressWarnings("rawtypes") // the updater is shared by all instances
+  private static final AtomicReferenceFieldUpdater<LockFreeDoubleCheck, Object> STATE =
+      AtomicReferenceFieldUpdater.newUpdater(LockFreeDoubleCheck.class, Object.class, "state");
+
+  /** Either an {@link Initialization}, or the memoized instance (which may be {@code null}). */
+  private volatile Object state;
+
+  private LockFreeDoubleCheck(Provider<T> provider) {
+    assert provider != null;
+    this.state = new Initialization(provider);
+  }
+
+  @SuppressWarnings("unchecked") // cast only happens when result comes from the provider
+  @Override
+  public T get() {
+    Object result = state;
+    if (result instanceof Initialization) {
+      result = initialize((Initialization) result);
+    }
+    return (T) result;
+  }
+
+  private Object initialize(Object current) {
+    Thread currentThread = Thread.currentThread();
+    while (current instanceof Initialization) {
+      if (current instanceof Claim) {
+        Claim claim = (Claim) current;
+        if (claim.owner == currentThread) {
+          // A recursive call from within the delegate. DoubleCheck's monitor is reentrant, so it
+          // calls the delegate again; do the same so that the results can be compared.
+          return publish(claim, claim.provider.get());
+        }
+        claim.awaitCompletion();
+      } else {
+        Claim claim = new Claim(((Initialization) current).provider, currentThread);
+        if (STATE.compareAndSet(this, current, claim)) {
+          return callDelegate(claim);
+        }
+      }
+      current = state;
+    }
+    return current;
+  }
+
+  /** Calls the delegate as the owner of {@code claim}, and wakes any waiting threads when done. */
+  private Object callDelegate(Claim claim) {
+    boolean published = false;
+    try {
+      Object result = publish(claim, claim.provider.get());
+      published = true;
+      return result;
+    } finally {
+      if (!published) {
+        // Let the next caller try again with the same delegate.
+        STATE.compareAndSet(this, claim, new Initialization(claim.provider));
+      }
+      claim.complete();
+    }
+  }
+
+  /**
+   * Publishes {@code result} unless a recursive call has already published an instance, in which
+   * case the two must be the same.
+   */
+  private Object publish(Claim claim, Object result) {
+    Object current = state;
+    if (current == claim) {
+      // Only the owner of the claim ever replaces it, so a plain write is enough.
+      state = result;
+      return result;
+    }
+    return DoubleCheck.reentrantCheck(current, result);
+  }
+
+  /** Returns a {@link Provider} that caches the value from the given delegate provider. */
+  // This method is declared this way instead of "<T> Provider<T> provider(Provider<T> delegate)"
+  // to work around an Eclipse type inference bug: https://github.com/google/dagger/issues/949.
+  public static <P extends Provider<T>, T> Provider<T> provider(P delegate) {
+    checkNotNull(delegate);
+    if (delegate instanceof LockFreeDoubleCheck || delegate instanceof DoubleCheck) {
+      /* This should be a rare case, but if we have a scoped @Binds that delegates to a scoped
+       * binding, we shouldn't cache the value again. */
+      return delegate;
+    }
+    return new LockFreeDoubleCheck<T>(delegate);
+  }
+
+  /** Returns a {@link Lazy} that caches the value from the given provider. */
+  // This method is declared this way instead of "<T> Lazy<T> lazy(Provider<T> delegate)"
+  // to work around an Eclipse type inference bug: https://github.com/google/dagger/issues/949.
+  public static <P extends Provider<T>, T> Lazy<T> lazy(P provider) {
+    if (provider instanceof Lazy) {
+      @SuppressWarnings("unchecked")
+      final Lazy<T> lazy = (Lazy<T>) provider;
+      // Avoids memoizing a value that is already memoized. See DoubleCheck.lazy().
+      return lazy;
+    }
+    return new LockFreeDoubleCheck<T>(checkNotNull(provider));
+  }
+
+  /** The state before the instance has been created: the delegate that will create it. */
+  private static class Initialization {
+    final Provider<?> provider;
+
+    Initialization(Provider<?> provider) {
+      this.provider = provider;
+    }
+  }
+
+  /** The state while {@link #owner} is calling the delegate. */
+  private static final class Claim extends Initialization {
+    final Thread owner;
+    private final CountDownLatch completion = new CountDownLatch(1);
+
+    Claim(Provider<?> provider, Thread owner) {
+      super(provider);
+      this.owner = owner;
+    }
+
+    void complete() {
+      completion.countDown();
+    }
+
+    /** Parks the calling thread until the owner has either published an instance or failed. */
+    void awaitCompletion() {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            completion.await();
+            return;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
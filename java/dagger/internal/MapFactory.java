@@ -20,10 +20,10 @@ import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize
 import static dagger.internal.Preconditions.checkNotNull;
 import static java.util.Collections.unmodifiableMap;
 
+import dagger.internal.CompactMap.KeyIndex;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import javax.inject.Provider;
 
 /**
@@ -35,6 +35,9 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
       InstanceFactory.create(Collections.emptyMap());
 
   private final Map<K, Provider<V>> contributingMap;
+  // The keys are the same for every map, so only the values are created on each call to get().
+  private final KeyIndex<K> keys;
+  private final Provider<?>[] providers;
 
   /**
    * Returns a new {@link Builder}
@@ -53,6 +56,8 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
 
   private MapFactory(Map<K, Provider<V>> map) {
     this.contributingMap = unmodifiableMap(map);
+    this.keys = KeyIndex.of(map.keySet());
+    this.providers = map.values().toArray(new Provider<?>[map.size()]);
   }
 
   /**
@@ -61,11 +66,11 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
    */
   @Override
   public Map<K, V> get() {
-    Map<K, V> result = newLinkedHashMapWithExpectedSize(contributingMap.size());
-    for (Entry<K, Provider<V>> entry: contributingMap.entrySet()) {
-      result.put(entry.getKey(), entry.getValue().get());
+    Object[] values = new Object[providers.length];
+    for (int i = 0; i < providers.length; i++) {
+      values[i] = providers[i].get();
     }
-    return unmodifiableMap(result);
+    return new CompactMap<>(keys, values);
   }
 
   // TODO(ronshapiro): can we merge the builders? Or maybe just use a (Immutable)MapBuilder?
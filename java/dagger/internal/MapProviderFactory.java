@@ -18,7 +18,6 @@ package dagger.internal;
 
 import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize;
 import static dagger.internal.Preconditions.checkNotNull;
-import static java.util.Collections.unmodifiableMap;
 
 import dagger.Lazy;
 import java.util.LinkedHashMap;
@@ -41,7 +40,7 @@ public final class MapProviderFactory<K, V>
   }
 
   private MapProviderFactory(Map<K, Provider<V>> contributingMap) {
-    this.contributingMap = unmodifiableMap(contributingMap);
+    this.contributingMap = CompactMap.copyOf(contributingMap);
   }
 
   /**
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A sentinel used to memoize a scoped binding in a component, which is also the lock that threads
+ * hold while creating the instance. Unlike locking a {@link MemoizedSentinel}'s monitor, waiting
+ * for a {@link ReentrantLock} does not pin a virtual thread to its carrier thread.
+ */
+@GwtIncompatible
+public final class MemoizedLock extends ReentrantLock {
+  private static final long serialVersionUID = 0;
+
+  /**
+   * Like {@link DoubleCheck#reentrantCheck(Object, Object)}, but for fields that are initialized
+   * to a {@link MemoizedLock}.
+   */
+  public static Object reentrantCheck(Object currentInstance, Object newInstance) {
+    if (currentInstance instanceof MemoizedLock) {
+      return newInstance;
+    }
+    return DoubleCheck.reentrantCheck(currentInstance, newInstance);
+  }
+}
@@ -80,8 +80,12 @@ import javax.lang.model.util.SimpleTypeVisitor6;
 class AnnotationCreatorGenerator extends SourceFileGenerator<TypeElement> {
 
   @Inject
-  AnnotationCreatorGenerator(Filer filer, DaggerElements elements, SourceVersion sourceVersion) {
-    super(filer, elements, sourceVersion);
+  AnnotationCreatorGenerator(
+      Filer filer,
+      DaggerElements elements,
+      SourceVersion sourceVersion,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
   }
 
   @Override
@@ -113,6 +113,20 @@ final class BindingFactory {
   // TODO(dpb): See if we can just pass the parameterized type and not also the constructor.
   ProvisionBinding injectionBinding(
       ExecutableElement constructorElement, Optional<TypeMirror> resolvedType) {
+    return injectionBinding(constructorElement, resolvedType, Optional.empty());
+  }
+
+  /**
+   * Returns an {@link dagger.model.BindingKind#INJECTION} binding.
+   *
+   * @param unresolvedBinding the binding for the unparameterized type, if one was already created
+   *     for {@code constructorElement}. If the returned binding needs an {@linkplain
+   *     Binding#unresolved() unresolved} version, this one is used instead of creating it again.
+   */
+  ProvisionBinding injectionBinding(
+      ExecutableElement constructorElement,
+      Optional<TypeMirror> resolvedType,
+      Optional<ProvisionBinding> unresolvedBinding) {
     checkArgument(constructorElement.getKind().equals(CONSTRUCTOR));
     checkArgument(isAnnotationPresent(constructorElement, Inject.class));
     checkArgument(!getQualifier(constructorElement).isPresent());
@@ -150,7 +164,9 @@ final class BindingFactory {
 
     TypeElement bindingTypeElement = MoreElements.asType(constructorElement.getEnclosingElement());
     if (hasNonDefaultTypeParameters(bindingTypeElement, key.type(), types)) {
-      builder.unresolved(injectionBinding(constructorElement, Optional.empty()));
+      builder.unresolved(
+          unresolvedBinding.orElseGet(
+              () -> injectionBinding(constructorElement, Optional.empty())));
     }
     return builder.build();
   }
@@ -480,6 +496,20 @@ final class BindingFactory {
   // TODO(dpb): See if we can just pass one nongeneric/parameterized type.
   MembersInjectionBinding membersInjectionBinding(
       DeclaredType declaredType, Optional<TypeMirror> resolvedType) {
+    return membersInjectionBinding(declaredType, resolvedType, Optional.empty());
+  }
+
+  /**
+   * Returns a {@link dagger.model.BindingKind#MEMBERS_INJECTION} binding.
+   *
+   * @param unresolvedBinding the binding for the unparameterized type, if one was already created
+   *     for {@code declaredType}. If the returned binding needs an {@linkplain Binding#unresolved()
+   *     unresolved} version, this one is used instead of creating it again.
+   */
+  MembersInjectionBinding membersInjectionBinding(
+      DeclaredType declaredType,
+      Optional<TypeMirror> resolvedType,
+      Optional<MembersInjectionBinding> unresolvedBinding) {
     // If the class this is injecting has some type arguments, resolve everything.
     if (!declaredType.getTypeArguments().isEmpty() && resolvedType.isPresent()) {
       DeclaredType resolved = asDeclared(resolvedType.get());
@@ -506,7 +536,10 @@ final class BindingFactory {
         typeElement,
         hasNonDefaultTypeParameters(typeElement, key.type(), types)
             ? Optional.of(
-                membersInjectionBinding(asDeclared(typeElement.asType()), Optional.empty()))
+                unresolvedBinding.orElseGet(
+                    () ->
+                        membersInjectionBinding(
+                            asDeclared(typeElement.asType()), Optional.empty())))
             : Optional.empty(),
         injectionSites);
   }
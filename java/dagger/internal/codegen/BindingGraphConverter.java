@@ -19,6 +19,7 @@ package dagger.internal.codegen;
 import static com.google.auto.common.MoreTypes.asTypeElement;
 import static dagger.internal.codegen.BindingRequest.bindingRequest;
 import static dagger.internal.codegen.DaggerGraphs.unreachableNodes;
+import static dagger.internal.codegen.DaggerStatistics.Phase.BINDING_GRAPH_CONVERTER;
 import static dagger.internal.codegen.DaggerStreams.instancesOf;
 import static dagger.internal.codegen.DaggerStreams.presentValues;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
@@ -46,12 +47,16 @@ final class BindingGraphConverter {
 
   private final BindingDeclarationFormatter bindingDeclarationFormatter;
   private final CompilerOptions compilerOptions;
+  private final DaggerStatistics daggerStatistics;
 
   @Inject
   BindingGraphConverter(
-      BindingDeclarationFormatter bindingDeclarationFormatter, CompilerOptions compilerOptions) {
+      BindingDeclarationFormatter bindingDeclarationFormatter,
+      CompilerOptions compilerOptions,
+      DaggerStatistics daggerStatistics) {
     this.bindingDeclarationFormatter = bindingDeclarationFormatter;
     this.compilerOptions = compilerOptions;
+    this.daggerStatistics = daggerStatistics;
   }
 
   /**
@@ -62,6 +67,16 @@ final class BindingGraphConverter {
    *     points
    */
   dagger.model.BindingGraph convert(BindingGraph bindingGraph, boolean fullBindingGraph) {
+    try (DaggerStatistics.Timer timer =
+        daggerStatistics.startTimer(
+            BINDING_GRAPH_CONVERTER,
+            bindingGraph.componentTypeElement().getQualifiedName().toString())) {
+      return convertGraph(bindingGraph, fullBindingGraph);
+    }
+  }
+
+  private dagger.model.BindingGraph convertGraph(
+      BindingGraph bindingGraph, boolean fullBindingGraph) {
     Traverser traverser = new Traverser(bindingGraph);
     traverser.traverseComponents();
 
@@ -23,6 +23,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Iterables.isEmpty;
 import static dagger.internal.codegen.ComponentDescriptor.isComponentContributionMethod;
+import static dagger.internal.codegen.DaggerStatistics.Counter.BINDINGS;
+import static dagger.internal.codegen.DaggerStatistics.Counter.RESOLVED_KEYS;
+import static dagger.internal.codegen.DaggerStatistics.Phase.BINDING_GRAPH_FACTORY;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
 import static dagger.internal.codegen.RequestKinds.getRequestKind;
 import static dagger.internal.codegen.SourceFiles.generatedMonitoringModuleName;
@@ -41,7 +44,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Sets;
 import dagger.MembersInjector;
@@ -78,6 +80,7 @@ final class BindingGraphFactory {
   private final BindingFactory bindingFactory;
   private final CompilerOptions compilerOptions;
   private final ModuleDescriptor.Factory moduleDescriptorFactory;
+  private final DaggerStatistics daggerStatistics;
 
   @Inject
   BindingGraphFactory(
@@ -86,20 +89,49 @@ final class BindingGraphFactory {
       KeyFactory keyFactory,
       BindingFactory bindingFactory,
       ModuleDescriptor.Factory moduleDescriptorFactory,
-      CompilerOptions compilerOptions) {
+      CompilerOptions compilerOptions,
+      DaggerStatistics daggerStatistics) {
     this.elements = elements;
     this.injectBindingRegistry = injectBindingRegistry;
     this.keyFactory = keyFactory;
     this.bindingFactory = bindingFactory;
     this.moduleDescriptorFactory = moduleDescriptorFactory;
     this.compilerOptions = compilerOptions;
+    this.daggerStatistics = daggerStatistics;
   }
 
   /** Creates a binding graph for a root component. */
   BindingGraph create(ComponentDescriptor componentDescriptor) {
     checkArgument(
         componentDescriptor.kind().isRoot() || compilerOptions.aheadOfTimeSubcomponents());
-    return create(Optional.empty(), componentDescriptor);
+    BindingGraph graph;
+    try (DaggerStatistics.Timer timer =
+        daggerStatistics.startTimer(
+            BINDING_GRAPH_FACTORY,
+            componentDescriptor.typeElement().getQualifiedName().toString())) {
+      graph = create(Optional.empty(), componentDescriptor);
+    }
+    countResolvedBindings(graph);
+    return graph;
+  }
+
+  private void countResolvedBindings(BindingGraph graph) {
+    long resolvedKeys = 0;
+    long bindings = 0;
+    Deque<BindingGraph> graphs = new ArrayDeque<>();
+    graphs.push(graph);
+    while (!graphs.isEmpty()) {
+      BindingGraph currentGraph = graphs.pop();
+      resolvedKeys +=
+          currentGraph.contributionBindings().size()
+              + currentGraph.membersInjectionBindings().size();
+      for (ResolvedBindings resolvedBindings : currentGraph.resolvedBindings()) {
+        bindings += resolvedBindings.bindings().size();
+      }
+      currentGraph.subgraphs().forEach(graphs::push);
+    }
+    daggerStatistics.count(RESOLVED_KEYS, resolvedKeys);
+    daggerStatistics.count(BINDINGS, bindings);
   }
 
   private BindingGraph create(
@@ -191,7 +223,7 @@ final class BindingGraphFactory {
       // any multibinding contribution identifier so that the multibinding itself is resolved.
       modules(componentDescriptor, parentResolver).stream()
           .flatMap(module -> module.allBindingKeys().stream())
-          .map(key -> key.toBuilder().multibindingContributionIdentifier(Optional.empty()).build())
+          .map(keyFactory::unwrapMultibindingKey)
           .forEach(requestResolver::resolve);
     }
 
@@ -295,6 +327,10 @@ final class BindingGraphFactory {
     final Map<Key, Boolean> keyDependsOnLocalBindingsCache = new HashMap<>();
     final Map<Binding, Boolean> bindingDependsOnLocalBindingsCache = new HashMap<>();
     final Queue<ComponentDescriptor> subcomponentsToResolve = new ArrayDeque<>();
+    private ImmutableMap<Key, ResolvedBindings> cachedResolvedContributionBindings;
+    private int cachedResolvedContributionBindingsCount;
+    private ImmutableMap<Key, ResolvedBindings> cachedParentResolvedContributionBindings;
+    private ImmutableSet<ModuleDescriptor> inheritedModules;
 
     Resolver(
         Optional<Resolver> parentResolver,
@@ -885,20 +921,31 @@ final class BindingGraphFactory {
      * all ancestor resolvers, indexed by {@link ResolvedBindings#key()}.
      */
     ImmutableMap<Key, ResolvedBindings> getResolvedContributionBindings() {
-      ImmutableMap.Builder<Key, ResolvedBindings> builder = ImmutableMap.builder();
-      builder.putAll(resolvedContributionBindings);
-      if (parentResolver.isPresent()) {
-        ImmutableMap<Key, ResolvedBindings> parentBindings =
-            parentResolver.get().getResolvedContributionBindings();
-        Collection<ResolvedBindings> bindingsResolvedInParent =
-            Maps.difference(parentBindings, resolvedContributionBindings)
-                .entriesOnlyOnLeft()
-                .values();
-        for (ResolvedBindings resolvedInParent : bindingsResolvedInParent) {
-          builder.put(resolvedInParent.key(), resolvedInParent.asInheritedIn(componentDescriptor));
-        }
+      ImmutableMap<Key, ResolvedBindings> parentBindings =
+          parentResolver.isPresent()
+              ? parentResolver.get().getResolvedContributionBindings()
+              : ImmutableMap.of();
+      // Every subcomponent asks its parent for these, so reuse the last result as long as nothing
+      // was resolved here or in an ancestor since. Resolved bindings are only ever added, never
+      // replaced, so comparing the sizes is enough to tell.
+      if (cachedResolvedContributionBindings == null
+          || cachedResolvedContributionBindingsCount != resolvedContributionBindings.size()
+          || cachedParentResolvedContributionBindings != parentBindings) {
+        ImmutableMap.Builder<Key, ResolvedBindings> builder =
+            ImmutableMap.builderWithExpectedSize(
+                resolvedContributionBindings.size() + parentBindings.size());
+        builder.putAll(resolvedContributionBindings);
+        parentBindings.forEach(
+            (key, resolvedInParent) -> {
+              if (!resolvedContributionBindings.containsKey(key)) {
+                builder.put(key, resolvedInParent.asInheritedIn(componentDescriptor));
+              }
+            });
+        cachedResolvedContributionBindings = builder.build();
+        cachedResolvedContributionBindingsCount = resolvedContributionBindings.size();
+        cachedParentResolvedContributionBindings = parentBindings;
       }
-      return builder.build();
+      return cachedResolvedContributionBindings;
     }
 
     /**
@@ -910,12 +957,16 @@ final class BindingGraphFactory {
     }
 
     ImmutableSet<ModuleDescriptor> getInheritedModules() {
-      return parentResolver.isPresent()
-          ? Sets.union(
-                  parentResolver.get().getInheritedModules(),
-                  parentResolver.get().componentDescriptor.modules())
-              .immutableCopy()
-          : ImmutableSet.<ModuleDescriptor>of();
+      if (inheritedModules == null) {
+        inheritedModules =
+            parentResolver.isPresent()
+                ? Sets.union(
+                        parentResolver.get().getInheritedModules(),
+                        parentResolver.get().componentDescriptor.modules())
+                    .immutableCopy()
+                : ImmutableSet.<ModuleDescriptor>of();
+      }
+      return inheritedModules;
     }
 
     ImmutableSet<ModuleDescriptor> getOwnedModules() {
@@ -1032,19 +1083,13 @@ final class BindingGraphFactory {
    * A multimap of those {@code declarations} that are multibinding contribution declarations,
    * indexed by the key of the set or map to which they contribute.
    */
-  static <T extends BindingDeclaration>
+  private <T extends BindingDeclaration>
       ImmutableSetMultimap<Key, T> multibindingContributionsByMultibindingKey(
           Iterable<T> declarations) {
     ImmutableSetMultimap.Builder<Key, T> builder = ImmutableSetMultimap.builder();
     for (T declaration : declarations) {
       if (declaration.key().multibindingContributionIdentifier().isPresent()) {
-        builder.put(
-            declaration
-                .key()
-                .toBuilder()
-                .multibindingContributionIdentifier(Optional.empty())
-                .build(),
-            declaration);
+        builder.put(keyFactory.unwrapMultibindingKey(declaration.key()), declaration);
       }
     }
     return builder.build();
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.collect.Iterables.concat;
+import static dagger.internal.codegen.DaggerElements.elementToString;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.lang.model.element.ElementKind.PACKAGE;
+import static javax.lang.model.util.ElementFilter.constructorsIn;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import dagger.internal.codegen.ComponentDescriptor.ComponentMethodDescriptor;
+import dagger.internal.codegen.MembersInjectionBinding.InjectionSite;
+import dagger.model.DependencyRequest;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.StandardLocation;
+
+/**
+ * Remembers, across incremental compilations, which binding graphs Dagger's validation accepted
+ * without reporting any diagnostics, so that the same graph is not validated again.
+ *
+ * <p>A graph's fingerprint is a hash of everything the validation plugins look at: for the
+ * component and each subcomponent, its methods, its scopes, and the constructors of its modules,
+ * and for every resolved key, its bindings, their dependencies, and the declarations of the
+ * elements behind them (modules, {@code @Provides} methods, {@code @Inject} constructors and
+ * members, and the types that enclose them), along with the compiler options. The fingerprint of
+ * the last clean graph for each component is kept in a file under the generated sources
+ * directory.
+ *
+ * <p>That file is written directly to disk rather than through the {@link Filer}, because Gradle
+ * deletes every file created through the {@link Filer} before an incremental compilation, which is
+ * exactly when the cache is needed. This has some limitations:
+ *
+ * <ul>
+ *   <li>The build tool doesn't know about the file, so it isn't a declared output of the
+ *       compilation: it isn't restored from a build cache, and a compilation that isn't
+ *       incremental may start without it, in which case every graph is validated again.
+ *   <li>Nothing is cached when the generated sources directory is not on the file system, for
+ *       example with an in-memory file manager.
+ *   <li>The cache is only used with {@code -Adagger.gradle.incremental}, since other build tools
+ *       may not keep the generated sources directory between compilations, or may treat unknown
+ *       files in it as sources.
+ * </ul>
+ *
+ * <p>The graph itself still has to be resolved in order to fingerprint it, and to generate the
+ * component.
+ */
+@Singleton
+final class BindingGraphFingerprintCache {
+  private static final String DIRECTORY = "dagger-binding-graph-fingerprints";
+
+  private final Filer filer;
+  private final CompilerOptions compilerOptions;
+  private final Map<BindingGraph, String> fingerprints = new MapMaker().weakKeys().makeMap();
+  private Optional<Path> directory;
+
+  @Inject
+  BindingGraphFingerprintCache(Filer filer, CompilerOptions compilerOptions) {
+    this.filer = filer;
+    this.compilerOptions = compilerOptions;
+  }
+
+  /**
+   * Returns {@code true} if a graph for the same component with the same fingerprint was validated
+   * without any diagnostics by a previous compilation.
+   */
+  boolean wasValidatedCleanly(BindingGraph graph) {
+    Optional<Path> file = fingerprintFile(graph);
+    if (!file.isPresent() || !Files.isRegularFile(file.get())) {
+      return false;
+    }
+    try {
+      return new String(Files.readAllBytes(file.get()), UTF_8).equals(fingerprint(graph));
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /** Records that {@code graph} was validated without any diagnostics. */
+  void recordCleanValidation(BindingGraph graph) {
+    Optional<Path> file = fingerprintFile(graph);
+    if (!file.isPresent()) {
+      return;
+    }
+    try {
+      Files.createDirectories(file.get().getParent());
+      Files.write(file.get(), fingerprint(graph).getBytes(UTF_8));
+    } catch (IOException e) {
+      // The cache is only an optimization, so the next compilation will just validate again.
+    }
+  }
+
+  private Optional<Path> fingerprintFile(BindingGraph graph) {
+    if (!compilerOptions.cacheBindingGraphFingerprints()) {
+      return Optional.empty();
+    }
+    if (directory == null) {
+      directory = findDirectory();
+    }
+    return directory.map(
+        directory ->
+            directory.resolve(graph.componentTypeElement().getQualifiedName().toString()));
+  }
+
+  private Optional<Path> findDirectory() {
+    try {
+      URI uri = filer.getResource(StandardLocation.SOURCE_OUTPUT, "", DIRECTORY).toUri();
+      if ("file".equals(uri.getScheme())) {
+        return Optional.of(Paths.get(uri));
+      }
+    } catch (IOException | RuntimeException e) {
+      // Some file managers keep their output in memory, or don't allow reading it.
+    }
+    return Optional.empty();
+  }
+
+  private String fingerprint(BindingGraph graph) {
+    return fingerprints.computeIfAbsent(
+        graph,
+        g -> {
+          Hasher hasher = Hashing.sha256().newHasher();
+          putString(hasher, compilerOptions.toString());
+          putGraph(hasher, g);
+          return hasher.hash().toString();
+        });
+  }
+
+  private static void putGraph(Hasher hasher, BindingGraph graph) {
+    ComponentDescriptor component = graph.componentDescriptor();
+    putString(hasher, component.kind());
+    putElement(hasher, component.typeElement());
+    putString(hasher, component.scopes());
+    for (ModuleDescriptor module : component.modules()) {
+      // Whether a component can create a module itself depends on the module's constructors, which
+      // aren't part of any binding declaration.
+      putElementAndEnclosingTypes(hasher, module.moduleElement());
+      for (ExecutableElement constructor :
+          constructorsIn(module.moduleElement().getEnclosedElements())) {
+        putElement(hasher, constructor);
+      }
+    }
+    for (ComponentMethodDescriptor method : component.componentMethods()) {
+      putString(hasher, method.kind());
+      putElement(hasher, method.methodElement());
+    }
+    component.creatorDescriptor().ifPresent(creator -> putElement(hasher, creator.typeElement()));
+    graph.factoryMethod().ifPresent(factoryMethod -> putElement(hasher, factoryMethod));
+
+    for (ResolvedBindings resolvedBindings : graph.resolvedBindings()) {
+      putString(hasher, resolvedBindings.key());
+      putString(hasher, resolvedBindings.resolvingComponent());
+      resolvedBindings
+          .allBindings()
+          .forEach(
+              (owningComponent, binding) -> {
+                putString(hasher, owningComponent);
+                putBinding(hasher, binding);
+              });
+      for (BindingDeclaration declaration :
+          concat(
+              resolvedBindings.multibindingDeclarations(),
+              resolvedBindings.subcomponentDeclarations(),
+              resolvedBindings.optionalBindingDeclarations())) {
+        putDeclaration(hasher, declaration);
+      }
+    }
+
+    putString(hasher, graph.subgraphs().size());
+    for (BindingGraph subgraph : graph.subgraphs()) {
+      putGraph(hasher, subgraph);
+    }
+  }
+
+  private static void putBinding(Hasher hasher, Binding binding) {
+    putDeclaration(hasher, binding);
+    putString(hasher, binding.kind());
+    putString(hasher, binding.bindingType());
+    putString(hasher, binding.scope());
+    putString(hasher, binding.isNullable());
+    putString(hasher, binding.unresolved().isPresent());
+    for (DependencyRequest dependency : binding.dependencies()) {
+      putString(hasher, dependency.kind());
+      putString(hasher, dependency.key());
+      putString(hasher, dependency.isNullable());
+      dependency.requestElement().ifPresent(element -> putElement(hasher, element));
+    }
+    if (binding instanceof ContributionBinding) {
+      ContributionBinding contributionBinding = (ContributionBinding) binding;
+      putString(hasher, contributionBinding.mapKeyAnnotation());
+      putString(hasher, contributionBinding.nullableType());
+    }
+    if (binding instanceof ProvisionBinding) {
+      for (InjectionSite site : ((ProvisionBinding) binding).injectionSites()) {
+        putElement(hasher, site.element());
+      }
+    }
+    if (binding instanceof MembersInjectionBinding) {
+      for (InjectionSite site : ((MembersInjectionBinding) binding).injectionSites()) {
+        putElement(hasher, site.element());
+      }
+    }
+  }
+
+  private static void putDeclaration(Hasher hasher, BindingDeclaration declaration) {
+    putString(hasher, declaration.key());
+    declaration.bindingElement().ifPresent(element -> putElementAndEnclosingTypes(hasher, element));
+    declaration
+        .contributingModule()
+        .ifPresent(module -> putElementAndEnclosingTypes(hasher, module));
+  }
+
+  /**
+   * Adds {@code element} and every type that encloses it, since validation depends on, for
+   * example, whether a nested type is static or private.
+   */
+  private static void putElementAndEnclosingTypes(Hasher hasher, Element element) {
+    for (Element current = element;
+        current != null && !current.getKind().equals(PACKAGE);
+        current = current.getEnclosingElement()) {
+      putElement(hasher, current);
+    }
+  }
+
+  private static void putElement(Hasher hasher, Element element) {
+    putString(hasher, element.getKind());
+    putString(hasher, elementToString(element));
+    putString(hasher, element.asType());
+    putString(hasher, element.getModifiers());
+    putString(hasher, element.getAnnotationMirrors());
+    if (element instanceof ExecutableElement) {
+      for (VariableElement parameter : ((ExecutableElement) element).getParameters()) {
+        putString(hasher, parameter.getAnnotationMirrors());
+      }
+    } else if (element instanceof TypeElement) {
+      putString(hasher, ((TypeElement) element).getSuperclass());
+      putString(hasher, ((TypeElement) element).getInterfaces());
+    }
+  }
+
+  private static void putString(Hasher hasher, Object value) {
+    // Separate each value so that adjacent ones can't run into each other.
+    hasher.putString(String.valueOf(value), UTF_8).putByte((byte) 0);
+  }
+}
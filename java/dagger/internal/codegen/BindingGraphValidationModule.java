@@ -86,8 +86,15 @@ interface BindingGraphValidationModule {
   static BindingGraphValidator moduleBindingGraphValidator(
       @Validation Set<BindingGraphPlugin> validationPlugins,
       ImmutableSet<BindingGraphPlugin> externalPlugins,
-      @ModuleValidation DiagnosticReporterFactory diagnosticReporterFactory) {
-    return new BindingGraphValidator(validationPlugins, externalPlugins, diagnosticReporterFactory);
+      @ModuleValidation DiagnosticReporterFactory diagnosticReporterFactory,
+      DaggerStatistics daggerStatistics,
+      CompilerOptions compilerOptions) {
+    return new BindingGraphValidator(
+        validationPlugins,
+        externalPlugins,
+        diagnosticReporterFactory,
+        daggerStatistics,
+        compilerOptions);
   }
 
   @Provides
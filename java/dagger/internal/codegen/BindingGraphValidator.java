@@ -17,15 +17,26 @@
 package dagger.internal.codegen;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static dagger.internal.codegen.DaggerStatistics.Phase.BINDING_GRAPH_PLUGIN;
 import static javax.tools.Diagnostic.Kind.ERROR;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 import dagger.internal.codegen.DiagnosticReporterFactory.DiagnosticReporterImpl;
 import dagger.model.BindingGraph;
 import dagger.spi.BindingGraphPlugin;
+import dagger.spi.DiagnosticReporter;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.tools.Diagnostic;
 
 /** Validates a {@link BindingGraph}. */
 @Singleton
@@ -33,31 +44,127 @@ final class BindingGraphValidator {
   private final ImmutableSet<BindingGraphPlugin> validationPlugins;
   private final ImmutableSet<BindingGraphPlugin> externalPlugins;
   private final DiagnosticReporterFactory diagnosticReporterFactory;
+  private final DaggerStatistics daggerStatistics;
+  private final CompilerOptions compilerOptions;
 
   @Inject
   BindingGraphValidator(
       @Validation Set<BindingGraphPlugin> validationPlugins,
       ImmutableSet<BindingGraphPlugin> externalPlugins,
-      DiagnosticReporterFactory diagnosticReporterFactory) {
+      DiagnosticReporterFactory diagnosticReporterFactory,
+      DaggerStatistics daggerStatistics,
+      CompilerOptions compilerOptions) {
     this.validationPlugins = ImmutableSet.copyOf(validationPlugins);
     this.externalPlugins = ImmutableSet.copyOf(externalPlugins);
     this.diagnosticReporterFactory = checkNotNull(diagnosticReporterFactory);
+    this.daggerStatistics = checkNotNull(daggerStatistics);
+    this.compilerOptions = checkNotNull(compilerOptions);
   }
 
   /** Returns {@code true} if no errors are reported for {@code graph}. */
   boolean isValid(BindingGraph graph) {
-    return isValid(validationPlugins, graph) && isValid(externalPlugins, graph);
+    return !validate(graph).contains(ERROR);
   }
 
-  private boolean isValid(ImmutableSet<BindingGraphPlugin> plugins, BindingGraph graph) {
-    boolean isValid = true;
+  /**
+   * Validates {@code graph} and returns the kinds of diagnostics that were reported. The external
+   * plugins only run if Dagger's own validation reports no errors.
+   */
+  ImmutableSet<Diagnostic.Kind> validate(BindingGraph graph) {
+    ImmutableSet<Diagnostic.Kind> diagnosticKinds =
+        compilerOptions.parallelBindingGraphValidation()
+            ? visitInParallel(validationPlugins, graph)
+            : visit(validationPlugins, graph);
+    if (diagnosticKinds.contains(ERROR)) {
+      return diagnosticKinds;
+    }
+    // External plugins may not be safe to run concurrently, so they always run one at a time.
+    return Sets.union(diagnosticKinds, visit(externalPlugins, graph)).immutableCopy();
+  }
+
+  /** Returns {@code true} if there are any plugins besides Dagger's own validation. */
+  boolean hasExternalPlugins() {
+    return !externalPlugins.isEmpty();
+  }
+
+  /**
+   * Returns {@code true} if the external plugins report no errors for {@code graph}, without
+   * running Dagger's own validation. This is only for graphs that are known to pass that
+   * validation without any diagnostics.
+   */
+  boolean isValidForExternalPlugins(BindingGraph graph) {
+    return !visit(externalPlugins, graph).contains(ERROR);
+  }
+
+  /** Runs {@code plugins} one at a time, returning the kinds of diagnostics they reported. */
+  private ImmutableSet<Diagnostic.Kind> visit(
+      ImmutableSet<BindingGraphPlugin> plugins, BindingGraph graph) {
+    ImmutableSet.Builder<Diagnostic.Kind> diagnosticKinds = ImmutableSet.builder();
     for (BindingGraphPlugin plugin : plugins) {
       DiagnosticReporterImpl reporter = diagnosticReporterFactory.reporter(graph, plugin);
-      plugin.visitGraph(graph, reporter);
-      if (reporter.reportedDiagnosticKinds().contains(ERROR)) {
-        isValid = false;
+      visitGraph(plugin, graph, reporter);
+      diagnosticKinds.addAll(reporter.reportedDiagnosticKinds());
+    }
+    return diagnosticKinds.build();
+  }
+
+  /**
+   * Runs the {@link ThreadSafeBindingGraphPlugin}s among {@code plugins} concurrently, and the
+   * others on this thread meanwhile, since they use javac's type model. Each plugin reports to a
+   * {@link BufferingDiagnosticReporter}. Once all of them have finished, their diagnostics are
+   * replayed in plugin order on this thread.
+   */
+  private ImmutableSet<Diagnostic.Kind> visitInParallel(
+      ImmutableSet<BindingGraphPlugin> plugins, BindingGraph graph) {
+    Map<BindingGraphPlugin, Future<BufferingDiagnosticReporter>> concurrentVisits =
+        new HashMap<>();
+    for (BindingGraphPlugin plugin : plugins) {
+      if (plugin instanceof ThreadSafeBindingGraphPlugin) {
+        concurrentVisits.put(
+            plugin, ForkJoinPool.commonPool().submit(() -> bufferedVisit(plugin, graph)));
+      }
+    }
+    Map<BindingGraphPlugin, BufferingDiagnosticReporter> serialVisits = new HashMap<>();
+    for (BindingGraphPlugin plugin : plugins) {
+      if (!concurrentVisits.containsKey(plugin)) {
+        serialVisits.put(plugin, bufferedVisit(plugin, graph));
       }
     }
-    return isValid;
+
+    ImmutableSet.Builder<Diagnostic.Kind> diagnosticKinds = ImmutableSet.builder();
+    for (BindingGraphPlugin plugin : plugins) {
+      DiagnosticReporterImpl reporter = diagnosticReporterFactory.reporter(graph, plugin);
+      BufferingDiagnosticReporter bufferedDiagnostics =
+          concurrentVisits.containsKey(plugin)
+              ? getUninterruptibly(concurrentVisits.get(plugin))
+              : serialVisits.get(plugin);
+      bufferedDiagnostics.replayTo(reporter);
+      diagnosticKinds.addAll(reporter.reportedDiagnosticKinds());
+    }
+    return diagnosticKinds.build();
+  }
+
+  private BufferingDiagnosticReporter bufferedVisit(BindingGraphPlugin plugin, BindingGraph graph) {
+    BufferingDiagnosticReporter reporter = new BufferingDiagnosticReporter();
+    visitGraph(plugin, graph, reporter);
+    return reporter;
+  }
+
+  private void visitGraph(
+      BindingGraphPlugin plugin, BindingGraph graph, DiagnosticReporter reporter) {
+    try (DaggerStatistics.Timer timer =
+        daggerStatistics.startTimer(BINDING_GRAPH_PLUGIN, plugin.pluginName())) {
+      plugin.visitGraph(graph, reporter);
+    }
+  }
+
+  private static <T> T getUninterruptibly(Future<T> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      // Rethrow whatever the plugin threw, as if it had run on this thread.
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
   }
 }
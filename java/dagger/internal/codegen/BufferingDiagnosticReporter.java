@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.collect.Lists.asList;
+
+import com.google.common.collect.ImmutableList;
+import dagger.model.BindingGraph.ChildFactoryMethodEdge;
+import dagger.model.BindingGraph.ComponentNode;
+import dagger.model.BindingGraph.DependencyEdge;
+import dagger.model.BindingGraph.MaybeBinding;
+import dagger.spi.DiagnosticReporter;
+import java.util.function.Consumer;
+import javax.tools.Diagnostic;
+
+/**
+ * A {@link DiagnosticReporter} that only records what was reported, so that a plugin can run on
+ * another thread. The recorded diagnostics are {@linkplain #replayTo(DiagnosticReporter) replayed}
+ * later on the processing thread.
+ *
+ * <p>Messages are formatted, and dependency traces computed, only when they are replayed, since
+ * both use javac's (unsynchronized) type model.
+ */
+final class BufferingDiagnosticReporter implements DiagnosticReporter {
+  private final ImmutableList.Builder<Consumer<DiagnosticReporter>> diagnostics =
+      ImmutableList.builder();
+
+  /** Reports everything that was reported to this reporter to {@code reporter}, in order. */
+  void replayTo(DiagnosticReporter reporter) {
+    diagnostics.build().forEach(diagnostic -> diagnostic.accept(reporter));
+  }
+
+  @Override
+  public void reportComponent(
+      Diagnostic.Kind diagnosticKind, ComponentNode componentNode, String message) {
+    diagnostics.add(reporter -> reporter.reportComponent(diagnosticKind, componentNode, message));
+  }
+
+  @Override
+  public void reportComponent(
+      Diagnostic.Kind diagnosticKind,
+      ComponentNode componentNode,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportComponent(
+                diagnosticKind, componentNode, formatMessage(messageFormat, firstArg, moreArgs)));
+  }
+
+  @Override
+  public void reportBinding(Diagnostic.Kind diagnosticKind, MaybeBinding binding, String message) {
+    diagnostics.add(reporter -> reporter.reportBinding(diagnosticKind, binding, message));
+  }
+
+  @Override
+  public void reportBinding(
+      Diagnostic.Kind diagnosticKind,
+      MaybeBinding binding,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportBinding(
+                diagnosticKind, binding, formatMessage(messageFormat, firstArg, moreArgs)));
+  }
+
+  @Override
+  public void reportDependency(
+      Diagnostic.Kind diagnosticKind, DependencyEdge dependencyEdge, String message) {
+    diagnostics.add(reporter -> reporter.reportDependency(diagnosticKind, dependencyEdge, message));
+  }
+
+  @Override
+  public void reportDependency(
+      Diagnostic.Kind diagnosticKind,
+      DependencyEdge dependencyEdge,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportDependency(
+                diagnosticKind, dependencyEdge, formatMessage(messageFormat, firstArg, moreArgs)));
+  }
+
+  @Override
+  public void reportSubcomponentFactoryMethod(
+      Diagnostic.Kind diagnosticKind,
+      ChildFactoryMethodEdge childFactoryMethodEdge,
+      String message) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportSubcomponentFactoryMethod(
+                diagnosticKind, childFactoryMethodEdge, message));
+  }
+
+  @Override
+  public void reportSubcomponentFactoryMethod(
+      Diagnostic.Kind diagnosticKind,
+      ChildFactoryMethodEdge childFactoryMethodEdge,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportSubcomponentFactoryMethod(
+                diagnosticKind,
+                childFactoryMethodEdge,
+                formatMessage(messageFormat, firstArg, moreArgs)));
+  }
+
+  private static String formatMessage(String messageFormat, Object firstArg, Object[] moreArgs) {
+    return String.format(messageFormat, asList(firstArg, moreArgs).toArray());
+  }
+}
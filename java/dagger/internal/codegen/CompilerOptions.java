@@ -38,6 +38,7 @@ import dagger.internal.GenerationOptions;
 import dagger.producers.Produces;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
@@ -60,6 +61,77 @@ abstract class CompilerOptions {
    */
   abstract boolean fastInit();
 
+  /**
+   * Returns true if scoped bindings should be memoized without holding a monitor.
+   *
+   * <p>If enabled, framework fields for scoped bindings use {@link
+   * dagger.internal.LockFreeDoubleCheck} instead of {@link dagger.internal.DoubleCheck}, and in
+   * {@linkplain #fastInit() fastInit} mode scoped instances are created while holding a {@link
+   * dagger.internal.MemoizedLock} instead of synchronizing on a {@link
+   * dagger.internal.MemoizedSentinel}. Threads that race to initialize a scoped binding therefore
+   * never wait on a monitor, so virtual threads are not pinned to their carrier thread while
+   * another thread creates the instance.
+   */
+  abstract boolean lockFreeScopedProviders();
+
+  /**
+   * Returns true if multibindings whose contributions always provide the same instances should be
+   * built once and then reused.
+   *
+   * <p>A set or map multibinding normally builds a new collection on every request. If every
+   * contribution is scoped (or is the component or an instance bound in its builder), the
+   * collection can never change after it is first built, so it is memoized with a {@link
+   * dagger.internal.SingleCheck} instead.
+   */
+  abstract boolean memoizeStableMultibindings();
+
+  /**
+   * Returns true if framework fields should be created the first time they are used, instead of
+   * in the component's {@code initialize()} methods.
+   *
+   * <p>This applies only where {@link #fastInit()} isn't already avoiding the eager creation of
+   * framework instances; see {@link #initializeFrameworkFieldsLazily(ComponentDescriptor)}.
+   */
+  abstract boolean lazyFrameworkFields();
+
+  /**
+   * Returns true if those of Dagger's own {@link dagger.spi.BindingGraphPlugin}s that don't use
+   * javac's type model should validate each binding graph concurrently with the others, which
+   * still run on the processing thread. Their diagnostics are buffered and printed in plugin order
+   * once they have all finished, so the output is the same as when they run one after another.
+   */
+  abstract boolean parallelBindingGraphValidation();
+
+  /**
+   * Returns true if the framework fields of {@code component} are each initialized by a private
+   * getter method on first access.
+   *
+   * <p>Production components always initialize their fields eagerly, since producers are cancelled
+   * through those fields.
+   */
+  boolean initializeFrameworkFieldsLazily(ComponentDescriptor component) {
+    return lazyFrameworkFields()
+        && !fastInit()
+        && !aheadOfTimeSubcomponents()
+        && !component.kind().isProducer();
+  }
+
+  /**
+   * Returns the maximum number of cases in each {@code switch} of a fastInit {@code
+   * SwitchingProvider}. Larger switches need fewer routing methods, but are less likely to be
+   * inlined or compiled ahead of time.
+   */
+  abstract int maxCasesPerSwitch();
+
+  /** Returns how the cases of a fastInit {@code SwitchingProvider} are split into methods. */
+  abstract SwitchingProviderPartitioning switchingProviderPartitioning();
+
+  /**
+   * Returns the file to which {@link DaggerStatistics} writes a JSON report of the time spent in
+   * each phase of processing, if one was given with {@code -Adagger.statisticsFile}.
+   */
+  abstract Optional<String> statisticsFile();
+
   abstract boolean formatGeneratedSource();
 
   abstract boolean writeProducerNameInToken();
@@ -93,6 +165,21 @@ abstract class CompilerOptions {
 
   abstract boolean useGradleIncrementalProcessing();
 
+  /**
+   * Returns true if the fingerprints of binding graphs that passed validation should be kept on
+   * disk, so that later incremental compilations can skip validating the same graphs again. This
+   * only takes effect along with {@link #useGradleIncrementalProcessing()}; see {@link
+   * #cacheBindingGraphFingerprints()}. The fingerprints are written outside the {@link
+   * javax.annotation.processing.Filer}; see {@link BindingGraphFingerprintCache} for what that
+   * means for the build tool.
+   */
+  abstract boolean bindingGraphFingerprintCache();
+
+  /** Returns true if {@link BindingGraphFingerprintCache} should be used. */
+  boolean cacheBindingGraphFingerprints() {
+    return useGradleIncrementalProcessing() && bindingGraphFingerprintCache();
+  }
+
   abstract ValidationType moduleBindingValidationType();
 
   abstract Diagnostic.Kind moduleHasDifferentScopesDiagnosticKind();
@@ -107,7 +194,8 @@ abstract class CompilerOptions {
 
   static CompilerOptions create(ProcessingEnvironment processingEnv) {
     Builder builder = new AutoValue_CompilerOptions.Builder();
-    for (Option option : concat(allOf(Feature.class), allOf(Validation.class))) {
+    for (Option option :
+        concat(allOf(Feature.class), allOf(Validation.class), allOf(ValueOption.class))) {
       option.set(builder, processingEnv);
     }
     return builder.build();
@@ -142,6 +230,21 @@ abstract class CompilerOptions {
 
     Builder fastInit(boolean fastInit);
 
+    Builder lockFreeScopedProviders(boolean lockFreeScopedProviders);
+
+    Builder memoizeStableMultibindings(boolean memoizeStableMultibindings);
+
+    Builder lazyFrameworkFields(boolean lazyFrameworkFields);
+
+    Builder parallelBindingGraphValidation(boolean parallelBindingGraphValidation);
+
+    Builder maxCasesPerSwitch(int maxCasesPerSwitch);
+
+    Builder switchingProviderPartitioning(
+        SwitchingProviderPartitioning switchingProviderPartitioning);
+
+    Builder statisticsFile(String statisticsFile);
+
     Builder formatGeneratedSource(boolean formatGeneratedSource);
 
     Builder writeProducerNameInToken(boolean writeProducerNameInToken);
@@ -164,6 +267,8 @@ abstract class CompilerOptions {
 
     Builder useGradleIncrementalProcessing(boolean enabled);
 
+    Builder bindingGraphFingerprintCache(boolean bindingGraphFingerprintCache);
+
     Builder moduleBindingValidationType(ValidationType validationType);
 
     Builder moduleHasDifferentScopesDiagnosticKind(Diagnostic.Kind kind);
@@ -205,6 +310,14 @@ abstract class CompilerOptions {
 
     FAST_INIT(Builder::fastInit),
 
+    LOCK_FREE_SCOPED_PROVIDERS(Builder::lockFreeScopedProviders),
+
+    MEMOIZE_STABLE_MULTIBINDINGS(Builder::memoizeStableMultibindings),
+
+    LAZY_FRAMEWORK_FIELDS(Builder::lazyFrameworkFields),
+
+    PARALLEL_BINDING_GRAPH_VALIDATION(Builder::parallelBindingGraphValidation),
+
     EXPERIMENTAL_ANDROID_MODE((builder, ignoredValue) -> {}) {
       @Override
       public void set(Builder builder, ProcessingEnvironment processingEnvironment) {
@@ -243,6 +356,8 @@ abstract class CompilerOptions {
       }
     },
 
+    BINDING_GRAPH_FINGERPRINT_CACHE(Builder::bindingGraphFingerprintCache),
+
     USES_PRODUCERS(Builder::usesProducers) {
       @Override
       boolean isEnabled(ProcessingEnvironment processingEnvironment) {
@@ -366,8 +481,56 @@ abstract class CompilerOptions {
     }
   }
 
+  /** An option whose value is neither a {@link FeatureStatus} nor a {@link ValidationType}. */
+  private enum ValueOption implements Option {
+    MAX_CASES_PER_SWITCH {
+      @Override
+      public void set(Builder builder, ProcessingEnvironment processingEnvironment) {
+        builder.maxCasesPerSwitch(
+            positiveIntValue(processingEnvironment, toString(), DEFAULT_MAX_CASES_PER_SWITCH));
+      }
+    },
+
+    SWITCHING_PROVIDER_PARTITIONING {
+      @Override
+      public void set(Builder builder, ProcessingEnvironment processingEnvironment) {
+        builder.switchingProviderPartitioning(
+            CompilerOptions.valueOf(
+                processingEnvironment,
+                toString(),
+                SwitchingProviderPartitioning.CASE_COUNT,
+                allOf(SwitchingProviderPartitioning.class)));
+      }
+    },
+
+    STATISTICS_FILE {
+      @Override
+      public void set(Builder builder, ProcessingEnvironment processingEnvironment) {
+        String statisticsFile = processingEnvironment.getOptions().get(toString());
+        if (statisticsFile != null && !statisticsFile.trim().isEmpty()) {
+          builder.statisticsFile(statisticsFile);
+        } else if (processingEnvironment.getOptions().containsKey(toString())) {
+          processingEnvironment
+              .getMessager()
+              .printMessage(
+                  Diagnostic.Kind.ERROR, "Processor option -A" + toString() + " needs a value");
+        }
+      }
+    },
+    ;
+
+    @Override
+    public String toString() {
+      return optionName(name());
+    }
+  }
+
+  /** The default for {@link #maxCasesPerSwitch()}. */
+  static final int DEFAULT_MAX_CASES_PER_SWITCH = 100;
+
   static final ImmutableSet<String> SUPPORTED_OPTIONS =
-      Stream.<Option>concat(Arrays.stream(Feature.values()), Arrays.stream(Validation.values()))
+      Stream.<Option[]>of(Feature.values(), Validation.values(), ValueOption.values())
+          .flatMap(Arrays::<Option>stream)
           .filter(Option::useCommandLineOption)
           .map(Object::toString)
           .collect(toImmutableSet());
@@ -406,4 +569,32 @@ abstract class CompilerOptions {
     }
     return defaultValue;
   }
+
+  private static int positiveIntValue(
+      ProcessingEnvironment processingEnv, String key, int defaultValue) {
+    String optionValue = processingEnv.getOptions().get(key);
+    if (optionValue == null) {
+      if (processingEnv.getOptions().containsKey(key)) {
+        processingEnv
+            .getMessager()
+            .printMessage(Diagnostic.Kind.ERROR, "Processor option -A" + key + " needs a value");
+      }
+      return defaultValue;
+    }
+    try {
+      int value = Integer.parseInt(optionValue.trim());
+      if (value > 0) {
+        return value;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below.
+    }
+    processingEnv
+        .getMessager()
+        .printMessage(
+            Diagnostic.Kind.ERROR,
+            String.format(
+                "Processor option -A%s must be a positive integer, found: %s", key, optionValue));
+    return defaultValue;
+  }
 }
@@ -29,6 +29,7 @@ import static dagger.internal.codegen.DelegateBindingExpression.isBindsScopeStro
 import static dagger.internal.codegen.MemberSelect.staticFactoryCreation;
 import static dagger.internal.codegen.RequestKinds.isDerivedFromProvider;
 import static dagger.internal.codegen.TypeNames.DOUBLE_CHECK;
+import static dagger.internal.codegen.TypeNames.LOCK_FREE_DOUBLE_CHECK;
 import static dagger.internal.codegen.TypeNames.SINGLE_CHECK;
 import static dagger.model.BindingKind.DELEGATE;
 import static dagger.model.BindingKind.MULTIBOUND_MAP;
@@ -91,7 +92,7 @@ final class ComponentBindingExpressions {
     this.membersInjectionMethods =
         new MembersInjectionMethods(componentImplementation, this, graph, elements, types);
     this.innerSwitchingProviders =
-        new InnerSwitchingProviders(componentImplementation, this, types);
+        new InnerSwitchingProviders(componentImplementation, this, types, compilerOptions);
     this.modifiableBindingExpressions =
         new ModifiableBindingExpressions(
             parent.map(cbe -> cbe.modifiableBindingExpressions),
@@ -278,14 +279,17 @@ final class ComponentBindingExpressions {
             ? staticFactoryCreation(resolvedBindings)
             : Optional.empty();
     FrameworkInstanceCreationExpression frameworkInstanceCreationExpression =
-        resolvedBindings.scope().isPresent()
+        resolvedBindings.scope().isPresent() || isMemoizedMultibinding(resolvedBindings)
             ? scope(resolvedBindings, frameworkInstanceCreationExpression(resolvedBindings))
             : frameworkInstanceCreationExpression(resolvedBindings);
     FrameworkInstanceSupplier frameworkInstanceSupplier =
         staticMethod.isPresent()
             ? staticMethod::get
             : new FrameworkFieldInitializer(
-                componentImplementation, resolvedBindings, frameworkInstanceCreationExpression);
+                componentImplementation,
+                resolvedBindings,
+                frameworkInstanceCreationExpression,
+                compilerOptions);
 
     switch (resolvedBindings.bindingType()) {
       case PROVISION:
@@ -304,10 +308,17 @@ final class ComponentBindingExpressions {
     return () ->
         CodeBlock.of(
             "$T.provider($L)",
-            resolvedBindings.scope().get().isReusable() ? SINGLE_CHECK : DOUBLE_CHECK,
+            scopedProviderClass(resolvedBindings),
             unscoped.creationExpression());
   }
 
+  private ClassName scopedProviderClass(ResolvedBindings resolvedBindings) {
+    if (!resolvedBindings.scope().isPresent() || resolvedBindings.scope().get().isReusable()) {
+      return SINGLE_CHECK;
+    }
+    return compilerOptions.lockFreeScopedProviders() ? LOCK_FREE_DOUBLE_CHECK : DOUBLE_CHECK;
+  }
+
   /**
    * Returns a creation expression for a {@link javax.inject.Provider} for provision bindings or a
    * {@link dagger.producers.Producer} for production bindings.
@@ -477,7 +488,8 @@ final class ComponentBindingExpressions {
             componentImplementation,
             resolvedBindings,
             new ProducerFromProviderCreationExpression(
-                resolvedBindings.contributionBinding(), componentImplementation, this)),
+                resolvedBindings.contributionBinding(), componentImplementation, this),
+            compilerOptions),
         types,
         elements,
         componentImplementation);
@@ -594,13 +606,21 @@ final class ComponentBindingExpressions {
    *
    * <p>In default mode, we always use the static factory creation strategy. In fastInit mode, we
    * prefer to use a SwitchingProvider instead of static factories in order to reduce class loading;
-   * however, we allow static factories that can reused across multiple bindings, e.g. {@code
-   * MapFactory} or {@code SetFactory}.
+   * however, we allow the shared instances for empty multibindings, {@code SetFactory.empty()} and
+   * {@code MapFactory.emptyMapProvider()}, since they don't allocate anything.
+   *
+   * <p>Non-empty multibindings never create a {@code SetFactory} or {@code MapFactory} in fastInit
+   * mode: {@link #providerBindingExpression(ResolvedBindings)} serves them with a SwitchingProvider
+   * case that builds the collection inline, so no {@link Provider} is created for each
+   * contribution when the component is created.
    */
   private boolean useStaticFactoryCreation(ContributionBinding binding) {
-    return !compilerOptions.fastInit()
-        || binding.kind().equals(MULTIBOUND_MAP)
-        || binding.kind().equals(MULTIBOUND_SET);
+    return !compilerOptions.fastInit() || isEmptyMultibinding(binding);
+  }
+
+  private static boolean isEmptyMultibinding(ContributionBinding binding) {
+    return (binding.kind().equals(MULTIBOUND_MAP) || binding.kind().equals(MULTIBOUND_SET))
+        && binding.dependencies().isEmpty();
   }
 
   /**
@@ -668,8 +688,11 @@ final class ComponentBindingExpressions {
       if (request.isRequestKind(RequestKind.PROVIDER)) {
         return MethodImplementationStrategy.SINGLE_CHECK;
       } else if (request.isRequestKind(RequestKind.INSTANCE) && needsCaching(resolvedBindings)) {
-        return resolvedBindings.scope().get().isReusable()
-            ? MethodImplementationStrategy.SINGLE_CHECK
+        if (!resolvedBindings.scope().isPresent() || resolvedBindings.scope().get().isReusable()) {
+          return MethodImplementationStrategy.SINGLE_CHECK;
+        }
+        return compilerOptions.lockFreeScopedProviders()
+            ? MethodImplementationStrategy.LOCKING_DOUBLE_CHECK
             : MethodImplementationStrategy.DOUBLE_CHECK;
       }
     }
@@ -680,15 +703,28 @@ final class ComponentBindingExpressions {
    * Returns {@code true} if the component needs to make sure the provided value is cached.
    *
    * <p>The component needs to cache the value for scoped bindings except for {@code @Binds}
-   * bindings whose scope is no stronger than their delegate's.
+   * bindings whose scope is no stronger than their delegate's, and for {@linkplain
+   * #isMemoizedMultibinding(ResolvedBindings) memoized multibindings}.
    */
   private boolean needsCaching(ResolvedBindings resolvedBindings) {
     if (!resolvedBindings.scope().isPresent()) {
-      return false;
+      return isMemoizedMultibinding(resolvedBindings);
     }
     if (resolvedBindings.contributionBinding().kind().equals(DELEGATE)) {
       return isBindsScopeStrongerThanDependencyScope(resolvedBindings, graph);
     }
     return true;
   }
+
+  /**
+   * Returns {@code true} if the multibinding is built once and then reused, because {@link
+   * CompilerOptions#memoizeStableMultibindings()} is enabled and every contribution always provides
+   * the same instance. Such multibindings are cached like {@link dagger.Reusable @Reusable}
+   * bindings.
+   */
+  private boolean isMemoizedMultibinding(ResolvedBindings resolvedBindings) {
+    return compilerOptions.memoizeStableMultibindings()
+        && !compilerOptions.aheadOfTimeSubcomponents()
+        && MultibindingExpression.hasOnlyStableContributions(resolvedBindings, graph);
+  }
 }
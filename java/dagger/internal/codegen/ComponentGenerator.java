@@ -40,8 +40,9 @@ final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
       Filer filer,
       DaggerElements elements,
       SourceVersion sourceVersion,
-      ComponentImplementationFactory componentImplementationFactory) {
-    super(filer, elements, sourceVersion);
+      ComponentImplementationFactory componentImplementationFactory,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
     this.componentImplementationFactory = componentImplementationFactory;
   }
 
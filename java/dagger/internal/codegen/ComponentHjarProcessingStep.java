@@ -78,6 +78,7 @@ final class ComponentHjarProcessingStep extends TypeCheckingProcessingStep<TypeE
   private final Messager messager;
   private final ComponentValidator componentValidator;
   private final ComponentDescriptor.Factory componentDescriptorFactory;
+  private final DaggerStatistics daggerStatistics;
 
   @Inject
   ComponentHjarProcessingStep(
@@ -87,7 +88,8 @@ final class ComponentHjarProcessingStep extends TypeCheckingProcessingStep<TypeE
       Filer filer,
       Messager messager,
       ComponentValidator componentValidator,
-      Factory componentDescriptorFactory) {
+      Factory componentDescriptorFactory,
+      DaggerStatistics daggerStatistics) {
     super(MoreElements::asType);
     this.sourceVersion = sourceVersion;
     this.elements = elements;
@@ -96,6 +98,7 @@ final class ComponentHjarProcessingStep extends TypeCheckingProcessingStep<TypeE
     this.messager = messager;
     this.componentValidator = componentValidator;
     this.componentDescriptorFactory = componentDescriptorFactory;
+    this.daggerStatistics = daggerStatistics;
   }
 
   @Override
@@ -114,14 +117,18 @@ final class ComponentHjarProcessingStep extends TypeCheckingProcessingStep<TypeE
         componentValidator.validate(componentTypeElement, ImmutableSet.of(), ImmutableSet.of());
     validationReport.report().printMessagesTo(messager);
     if (validationReport.report().isClean()) {
-      new EmptyComponentGenerator(filer, elements, sourceVersion)
+      new EmptyComponentGenerator(filer, elements, sourceVersion, daggerStatistics)
           .generate(componentDescriptorFactory.forTypeElement(componentTypeElement), messager);
     }
   }
 
   private final class EmptyComponentGenerator extends SourceFileGenerator<ComponentDescriptor> {
-    EmptyComponentGenerator(Filer filer, DaggerElements elements, SourceVersion sourceVersion) {
-      super(filer, elements, sourceVersion);
+    EmptyComponentGenerator(
+        Filer filer,
+        DaggerElements elements,
+        SourceVersion sourceVersion,
+        DaggerStatistics daggerStatistics) {
+      super(filer, elements, sourceVersion, daggerStatistics);
     }
 
     @Override
@@ -25,9 +25,13 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.squareup.javapoet.TypeSpec.classBuilder;
 import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
 import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -41,6 +45,7 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import dagger.internal.codegen.ModifiableBindingMethods.ModifiableBindingMethod;
 import dagger.model.DependencyRequest;
@@ -77,6 +82,12 @@ final class ComponentImplementation {
      */
     PRIVATE_METHOD_SCOPED_FIELD,
 
+    /**
+     * The lock and the depth counter that guard {@linkplain
+     * CompilerOptions#initializeFrameworkFieldsLazily lazily initialized} framework fields.
+     */
+    LAZY_FRAMEWORK_FIELD_GUARD,
+
     /** A framework field for type T, e.g. {@code Provider<T>}. */
     FRAMEWORK_FIELD,
 
@@ -200,6 +211,22 @@ final class ComponentImplementation {
       HashMultimap.create();
   private Optional<ConfigureInitializationMethod> configureInitializationMethod = Optional.empty();
   private final Map<ComponentRequirement, String> modifiableModuleMethods = new LinkedHashMap<>();
+  private final Supplier<FieldSpec> lazyFieldLock =
+      Suppliers.memoize(
+          () ->
+              addLazyFrameworkFieldGuard(
+                  FieldSpec.builder(
+                          TypeName.OBJECT, getUniqueFieldName("lazyFieldLock"), PRIVATE, FINAL)
+                      .initializer("new $T()", Object.class)));
+  private final Supplier<FieldSpec> lazyFieldInitializationDepth =
+      Suppliers.memoize(
+          () ->
+              addLazyFrameworkFieldGuard(
+                  FieldSpec.builder(
+                      TypeName.INT,
+                      getUniqueFieldName("lazyFieldInitializationDepth"),
+                      PRIVATE,
+                      VOLATILE)));
 
   ComponentImplementation(
       BindingGraph graph,
@@ -533,6 +560,30 @@ final class ComponentImplementation {
     cancellableProducerKeys.add(key);
   }
 
+  /**
+   * Returns the lock that {@linkplain CompilerOptions#initializeFrameworkFieldsLazily lazily
+   * initialized} framework fields are created under, adding it to the component the first time this
+   * is called.
+   */
+  FieldSpec lazyFieldLock() {
+    return lazyFieldLock.get();
+  }
+
+  /**
+   * Returns the volatile counter of lazily initialized framework fields that are being created,
+   * adding it to the component the first time this is called. It is only written while holding
+   * {@link #lazyFieldLock()}, and is nonzero while any field is being created.
+   */
+  FieldSpec lazyFieldInitializationDepth() {
+    return lazyFieldInitializationDepth.get();
+  }
+
+  private FieldSpec addLazyFrameworkFieldGuard(FieldSpec.Builder builder) {
+    FieldSpec field = builder.build();
+    addField(FieldSpecKind.LAZY_FRAMEWORK_FIELD_GUARD, field);
+    return field;
+  }
+
   /** Returns a new, unique field name for the component based on the given name. */
   String getUniqueFieldName(String name) {
     return componentFieldNames.getUniqueName(name);
@@ -22,6 +22,7 @@ import static dagger.internal.codegen.ComponentKind.builderAnnotationsFor;
 import static dagger.internal.codegen.ComponentKind.rootComponentKinds;
 import static dagger.internal.codegen.ComponentKind.subcomponentKinds;
 import static java.util.Collections.disjoint;
+import static javax.tools.Diagnostic.Kind.ERROR;
 
 import com.google.auto.common.BasicAnnotationProcessor.ProcessingStep;
 import com.google.auto.common.MoreElements;
@@ -39,6 +40,7 @@ import javax.annotation.processing.Messager;
 import javax.inject.Inject;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
 
 /**
  * A {@link ProcessingStep} that is responsible for dealing with a component or production component
@@ -54,6 +56,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
   private final SourceFileGenerator<BindingGraph> componentGenerator;
   private final BindingGraphConverter bindingGraphConverter;
   private final BindingGraphValidator bindingGraphValidator;
+  private final BindingGraphFingerprintCache bindingGraphFingerprintCache;
   private final CompilerOptions compilerOptions;
   private ImmutableSet<Element> subcomponentElements;
   private ImmutableSet<Element> subcomponentBuilderElements;
@@ -72,6 +75,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
       SourceFileGenerator<BindingGraph> componentGenerator,
       BindingGraphConverter bindingGraphConverter,
       BindingGraphValidator bindingGraphValidator,
+      BindingGraphFingerprintCache bindingGraphFingerprintCache,
       CompilerOptions compilerOptions) {
     super(MoreElements::asType);
     this.messager = messager;
@@ -83,6 +87,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
     this.componentGenerator = componentGenerator;
     this.bindingGraphConverter = bindingGraphConverter;
     this.bindingGraphValidator = bindingGraphValidator;
+    this.bindingGraphFingerprintCache = bindingGraphFingerprintCache;
     this.compilerOptions = compilerOptions;
   }
 
@@ -150,8 +155,19 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
   }
 
   private boolean isValid(BindingGraph bindingGraph) {
+    if (bindingGraphFingerprintCache.wasValidatedCleanly(bindingGraph)) {
+      // Dagger's own validation has nothing to say about this graph, so only the external plugins
+      // need to see it.
+      return !bindingGraphValidator.hasExternalPlugins()
+          || bindingGraphValidator.isValidForExternalPlugins(
+              bindingGraphConverter.convert(bindingGraph, false));
+    }
     dagger.model.BindingGraph modelGraph = bindingGraphConverter.convert(bindingGraph, false);
-    return bindingGraphValidator.isValid(modelGraph);
+    ImmutableSet<Diagnostic.Kind> diagnosticKinds = bindingGraphValidator.validate(modelGraph);
+    if (diagnosticKinds.isEmpty()) {
+      bindingGraphFingerprintCache.recordCleanValidation(bindingGraph);
+    }
+    return !diagnosticKinds.contains(ERROR);
   }
 
   private void generateComponent(BindingGraph bindingGraph) {
@@ -16,11 +16,15 @@
 
 package dagger.internal.codegen;
 
+import static dagger.internal.codegen.DaggerStatistics.Phase.PROCESSING_STEP;
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+
 import com.google.auto.common.BasicAnnotationProcessor;
 import com.google.auto.service.AutoService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.CheckReturnValue;
 import dagger.BindsInstance;
@@ -29,6 +33,7 @@ import dagger.Module;
 import dagger.Provides;
 import dagger.internal.codegen.SpiModule.TestingPlugins;
 import dagger.spi.BindingGraphPlugin;
+import java.lang.annotation.Annotation;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.Set;
@@ -37,6 +42,7 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
 
 /**
  * The annotation processor responsible for generating the classes that drive the Dagger 2.0
@@ -55,6 +61,7 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
   @Inject BindingGraphPlugins bindingGraphPlugins;
   @Inject CompilerOptions compilerOptions;
   @Inject DaggerStatistics daggerStatistics;
+  @Inject Set<ClearableCache> clearableCaches;
 
   public ComponentProcessor() {
     this.testingPlugins = Optional.empty();
@@ -108,7 +115,26 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
 
     daggerStatistics.processingStarted();
     bindingGraphPlugins.initializePlugins();
-    return processingSteps;
+    return processingSteps.stream().map(this::timed).collect(toImmutableList());
+  }
+
+  /** Returns a step that records the time spent in {@code step} with {@link DaggerStatistics}. */
+  private ProcessingStep timed(ProcessingStep step) {
+    return new ProcessingStep() {
+      @Override
+      public Set<? extends Class<? extends Annotation>> annotations() {
+        return step.annotations();
+      }
+
+      @Override
+      public Set<? extends Element> process(
+          SetMultimap<Class<? extends Annotation>, Element> elementsByAnnotation) {
+        try (DaggerStatistics.Timer timer =
+            daggerStatistics.startTimer(PROCESSING_STEP, step.getClass().getSimpleName())) {
+          return step.process(elementsByAnnotation);
+        }
+      }
+    };
   }
 
   @Singleton
@@ -118,6 +144,7 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
         BindingMethodValidatorsModule.class,
         InjectBindingRegistryModule.class,
         ProcessingEnvironmentModule.class,
+        ProcessingRoundCacheModule.class,
         ProcessingStepsModule.class,
         SourceFileGeneratorsModule.class,
         SpiModule.class,
@@ -188,5 +215,6 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
         e.printMessageTo(processingEnv.getMessager());
       }
     }
+    clearableCaches.forEach(ClearableCache::clearCache);
   }
 }
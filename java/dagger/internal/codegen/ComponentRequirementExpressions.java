@@ -131,14 +131,25 @@ final class ComponentRequirementExpressions {
         Optionals.firstPresent(
             componentImplementation.baseImplementation().flatMap(c -> c.creatorImplementation()),
             componentImplementation.creatorImplementation());
+    // Lazily initialized framework fields are created outside of the initialize() methods, so they
+    // can only use the field.
+    boolean parameterAvailableDuringInitialization =
+        !compilerOptions.initializeFrameworkFieldsLazily(graph.componentDescriptor());
     if (creatorImplementation.isPresent()) {
-      return new ComponentParameterField(requirement, componentImplementation, Optional.empty());
+      return new ComponentParameterField(
+          requirement,
+          componentImplementation,
+          Optional.empty(),
+          parameterAvailableDuringInitialization);
     } else if (graph.factoryMethod().isPresent()
         && graph.factoryMethodParameters().containsKey(requirement)) {
       String parameterName =
           graph.factoryMethodParameters().get(requirement).getSimpleName().toString();
       return new ComponentParameterField(
-          requirement, componentImplementation, Optional.of(parameterName));
+          requirement,
+          componentImplementation,
+          Optional.of(parameterName),
+          parameterAvailableDuringInitialization);
     } else if (requirement.kind().isModule()) {
       return new InstantiableModuleField(requirement, componentImplementation);
     } else {
@@ -224,12 +235,15 @@ final class ComponentRequirementExpressions {
    */
   private static final class ComponentParameterField extends AbstractField {
     private final String parameterName;
+    private final boolean parameterAvailableDuringInitialization;
 
     private ComponentParameterField(
         ComponentRequirement componentRequirement,
         ComponentImplementation componentImplementation,
-        Optional<String> name) {
+        Optional<String> name,
+        boolean parameterAvailableDuringInitialization) {
       super(componentRequirement, componentImplementation);
+      this.parameterAvailableDuringInitialization = parameterAvailableDuringInitialization;
       componentImplementation.addComponentRequirementParameter(componentRequirement);
       // Get the name that the component implementation will use for its parameter for the
       // requirement. If the given name is different than the name of the field created for the
@@ -245,7 +259,8 @@ final class ComponentRequirementExpressions {
 
     @Override
     public CodeBlock getExpressionDuringInitialization(ClassName requestingClass) {
-      if (componentImplementation.name().equals(requestingClass)) {
+      if (parameterAvailableDuringInitialization
+          && componentImplementation.name().equals(requestingClass)) {
         return CodeBlock.of("$L", parameterName);
       } else {
         // requesting this component requirement during initialization of a child component requires
@@ -20,11 +20,16 @@ import static com.google.common.collect.Sets.difference;
 import static com.google.common.graph.Graphs.reachableNodes;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.graph.Graph;
 import com.google.common.graph.SuccessorsFunction;
 import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -89,6 +94,109 @@ public final class DaggerGraphs {
     return ImmutableList.of();
   }
 
+  /**
+   * Returns the number of edges on a shortest path from {@code node} to each node that is
+   * reachable from it in {@code graph}, including {@code node} itself at distance zero.
+   *
+   * <p>This is a single breadth-first traversal, so it is much cheaper than calling {@link
+   * #shortestPath(SuccessorsFunction, Object, Object)} once for each of many nodes. To find the
+   * distances from many nodes <i>to</i> one node, pass a function that returns predecessors.
+   */
+  public static <N> ImmutableMap<N, Integer> shortestPathLengths(
+      SuccessorsFunction<N> graph, N node) {
+    Map<N, Integer> pathLengths = new LinkedHashMap<>();
+    pathLengths.put(node, 0);
+    Queue<N> queue = new ArrayDeque<>();
+    queue.add(node);
+    while (!queue.isEmpty()) {
+      N currentNode = queue.remove();
+      int nextPathLength = pathLengths.get(currentNode) + 1;
+      for (N nextNode : graph.successors(currentNode)) {
+        if (!pathLengths.containsKey(nextNode)) {
+          pathLengths.put(nextNode, nextPathLength);
+          queue.add(nextNode);
+        }
+      }
+    }
+    return ImmutableMap.copyOf(pathLengths);
+  }
+
+  /**
+   * Returns the strongly connected components of {@code graph}: the maximal sets of nodes in which
+   * every node is reachable from every other node. Each node is in exactly one component, and a
+   * component is listed after every component that it can reach.
+   *
+   * <p>This uses Tarjan's algorithm, which visits each node and edge only once. It keeps its own
+   * stack instead of recursing so that long dependency chains can't overflow the thread's stack.
+   */
+  public static <N> ImmutableList<ImmutableSet<N>> stronglyConnectedComponents(Graph<N> graph) {
+    ImmutableList.Builder<ImmutableSet<N>> components = ImmutableList.builder();
+    Map<N, Integer> visitIndex = new HashMap<>(); // the order in which each node was first visited
+    Deque<N> unassignedNodes = new ArrayDeque<>(); // visited nodes that aren't in a component yet
+    Set<N> unassignedNodeSet = new HashSet<>();
+    Deque<ComponentSearchFrame<N>> searchStack = new ArrayDeque<>();
+
+    for (N root : graph.nodes()) {
+      if (visitIndex.containsKey(root)) {
+        continue;
+      }
+      searchStack.push(new ComponentSearchFrame<>(root, graph, visitIndex.size()));
+      visitIndex.put(root, visitIndex.size());
+      unassignedNodes.push(root);
+      unassignedNodeSet.add(root);
+
+      while (!searchStack.isEmpty()) {
+        ComponentSearchFrame<N> frame = searchStack.peek();
+        if (frame.successors.hasNext()) {
+          N successor = frame.successors.next();
+          if (!visitIndex.containsKey(successor)) {
+            searchStack.push(new ComponentSearchFrame<>(successor, graph, visitIndex.size()));
+            visitIndex.put(successor, visitIndex.size());
+            unassignedNodes.push(successor);
+            unassignedNodeSet.add(successor);
+          } else if (unassignedNodeSet.contains(successor)) {
+            frame.lowLink = Math.min(frame.lowLink, visitIndex.get(successor));
+          }
+          continue;
+        }
+
+        searchStack.pop();
+        if (frame.lowLink == visitIndex.get(frame.node)) {
+          // frame.node is the first node visited in its component, so the component consists of
+          // all nodes visited since then that aren't in another component.
+          ImmutableSet.Builder<N> component = ImmutableSet.builder();
+          N node;
+          do {
+            node = unassignedNodes.pop();
+            unassignedNodeSet.remove(node);
+            component.add(node);
+          } while (!node.equals(frame.node));
+          components.add(component.build());
+        }
+        if (!searchStack.isEmpty()) {
+          ComponentSearchFrame<N> parent = searchStack.peek();
+          parent.lowLink = Math.min(parent.lowLink, frame.lowLink);
+        }
+      }
+    }
+    return components.build();
+  }
+
+  /** The state of the search from one node in {@link #stronglyConnectedComponents(Graph)}. */
+  private static final class ComponentSearchFrame<N> {
+    final N node;
+    final Iterator<N> successors;
+
+    /** The lowest visit index of an unassigned node known to be reachable from {@link #node}. */
+    int lowLink;
+
+    ComponentSearchFrame(N node, Graph<N> graph, int visitIndex) {
+      this.node = node;
+      this.successors = graph.successors(node).iterator();
+      this.lowLink = visitIndex;
+    }
+  }
+
   /** Returns the nodes in a graph that are not reachable from a node. */
   public static <N> ImmutableSet<N> unreachableNodes(Graph<N> graph, N node) {
     return ImmutableSet.copyOf(difference(graph.nodes(), reachableNodes(graph, node)));
@@ -178,7 +178,7 @@ public class DaggerKythePlugin extends Plugin.Scanner<Void, Void> {
   }
 
   @Singleton
-  @Component(modules = JavacPluginModule.class)
+  @Component(modules = {JavacPluginModule.class, SystemComponentsModule.class})
   interface PluginComponent {
     void inject(DaggerKythePlugin plugin);
 
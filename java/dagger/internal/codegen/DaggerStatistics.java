@@ -16,21 +16,94 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_UNDERSCORE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Ticker;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.Diagnostic;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
 
+/**
+ * Records how long each phase of processing takes and how much it produces. If {@code
+ * -Adagger.statisticsFile} is passed to the compiler, a JSON report is written to that file when
+ * processing is over.
+ *
+ * <p>Phases may run within other phases. For example, the time of each {@link
+ * Phase#PROCESSING_STEP} includes the times of the binding graphs that it creates and validates.
+ */
 @Singleton // for state sharing
 final class DaggerStatistics {
+  /** A phase of processing. Each run of a phase is timed under a name, such as the plugin's. */
+  enum Phase {
+    /** A {@code ProcessingStep}, named by its class. */
+    PROCESSING_STEP,
+
+    /** Creating a root {@code BindingGraph}, named by the component. */
+    BINDING_GRAPH_FACTORY,
+
+    /** Converting a {@code BindingGraph} to a {@code dagger.model.BindingGraph}. */
+    BINDING_GRAPH_CONVERTER,
+
+    /** A {@code BindingGraphPlugin} visiting a graph, named by the plugin. */
+    BINDING_GRAPH_PLUGIN,
+
+    /** A {@code SourceFileGenerator} writing a source file, named by the generator's class. */
+    SOURCE_FILE_GENERATOR,
+  }
+
+  /** Something that is counted during processing. */
+  enum Counter {
+    /** Keys resolved in every binding graph, counted once for each component that resolves them. */
+    RESOLVED_KEYS,
+
+    /** Bindings for the resolved keys. */
+    BINDINGS,
+
+    /** Source files written. */
+    GENERATED_CLASSES,
+
+    /** UTF-8 bytes in the source files written. */
+    BYTES_WRITTEN,
+
+    /** {@code ModuleDescriptor}s that were reused instead of being created again. */
+    MODULE_DESCRIPTOR_CACHE_HITS,
+  }
 
+  private final Ticker ticker;
   private final Stopwatch totalRuntimeStopwatch;
+  private final Optional<String> statisticsFile;
+  private final Messager messager;
+  private final Map<Phase, Map<String, PhaseTime>> phaseTimes = new EnumMap<>(Phase.class);
+  private final Map<Counter, Long> counters = new EnumMap<>(Counter.class);
 
   @Inject
-  DaggerStatistics(
-      Ticker ticker) {
-    totalRuntimeStopwatch = Stopwatch.createUnstarted(ticker);
+  DaggerStatistics(Ticker ticker, CompilerOptions compilerOptions, Messager messager) {
+    this.ticker = ticker;
+    this.totalRuntimeStopwatch = Stopwatch.createUnstarted(ticker);
+    this.statisticsFile = compilerOptions.statisticsFile();
+    this.messager = messager;
   }
 
   void processingStarted() {
@@ -41,6 +114,229 @@ final class DaggerStatistics {
   void processingStopped() {
     Preconditions.checkState(totalRuntimeStopwatch.isRunning());
     totalRuntimeStopwatch.stop();
+    statisticsFile.ifPresent(this::writeReport);
+  }
+
+  /**
+   * Starts timing a run of {@code phase}. The run ends when the returned timer is closed, which is
+   * best done with a {@code try}-with-resources statement.
+   */
+  Timer startTimer(Phase phase, String name) {
+    return new Timer(phase, name, ticker.read());
+  }
+
+  /** Adds {@code count} to a counter. */
+  synchronized void count(Counter counter, long count) {
+    counters.merge(counter, count, Long::sum);
+  }
+
+  /** Records that a {@code ModuleDescriptor} was reused instead of being created again. */
+  void moduleDescriptorCacheHit() {
+    count(Counter.MODULE_DESCRIPTOR_CACHE_HITS, 1);
+  }
+
+  /**
+   * Returns a filer that {@linkplain Counter#GENERATED_CLASSES counts} the source files written
+   * through it, and the {@linkplain Counter#BYTES_WRITTEN bytes} in them.
+   */
+  Filer countingFiler(Filer filer) {
+    return new CountingFiler(filer);
+  }
+
+  private synchronized void recordTime(Phase phase, String name, long nanos) {
+    phaseTimes
+        .computeIfAbsent(phase, p -> new LinkedHashMap<>())
+        .computeIfAbsent(name, n -> new PhaseTime())
+        .add(nanos);
+  }
+
+  private synchronized void writeReport(String file) {
+    StringBuilder json = new StringBuilder("{\n");
+    json.append("  \"totalRuntimeMillis\": ")
+        .append(totalRuntimeStopwatch.elapsed(MILLISECONDS))
+        .append(",\n  \"phases\": [");
+    String separator = "\n";
+    for (Map.Entry<Phase, Map<String, PhaseTime>> phase : phaseTimes.entrySet()) {
+      for (Map.Entry<String, PhaseTime> run : phase.getValue().entrySet()) {
+        json.append(separator)
+            .append("    {\"phase\": ")
+            .append(jsonString(jsonName(phase.getKey())))
+            .append(", \"name\": ")
+            .append(jsonString(run.getKey()))
+            .append(", \"runs\": ")
+            .append(run.getValue().runs)
+            .append(", \"totalMillis\": ")
+            .append(millis(run.getValue().totalNanos))
+            .append(", \"maxMillis\": ")
+            .append(millis(run.getValue().maxNanos))
+            .append('}');
+        separator = ",\n";
+      }
+    }
+    json.append("\n  ],\n  \"counters\": {");
+    separator = "\n";
+    for (Counter counter : Counter.values()) {
+      json.append(separator)
+          .append("    ")
+          .append(jsonString(jsonName(counter)))
+          .append(": ")
+          .append(counters.getOrDefault(counter, 0L));
+      separator = ",\n";
+    }
+    json.append("\n  }\n}\n");
+    try {
+      Files.write(Paths.get(file), json.toString().getBytes(UTF_8));
+    } catch (IOException | RuntimeException e) {
+      messager.printMessage(
+          Diagnostic.Kind.WARNING,
+          String.format("Could not write Dagger statistics to %s: %s", file, e));
+    }
+  }
+
+  private static String jsonName(Enum<?> value) {
+    return UPPER_UNDERSCORE.to(LOWER_CAMEL, value.name());
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+  }
+
+  private static String jsonString(String value) {
+    StringBuilder json = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    return json.append('"').toString();
+  }
+
+  /** The times of all runs of a phase with one name. */
+  private static final class PhaseTime {
+    int runs;
+    long totalNanos;
+    long maxNanos;
+
+    void add(long nanos) {
+      runs++;
+      totalNanos += nanos;
+      maxNanos = Math.max(maxNanos, nanos);
+    }
+  }
+
+  /** Times a run of a phase. See {@link #startTimer(Phase, String)}. */
+  final class Timer implements AutoCloseable {
+    private final Phase phase;
+    private final String name;
+    private final long startNanos;
+
+    private Timer(Phase phase, String name, long startNanos) {
+      this.phase = phase;
+      this.name = name;
+      this.startNanos = startNanos;
+    }
+
+    /** Ends the run. */
+    @Override
+    public void close() {
+      recordTime(phase, name, ticker.read() - startNanos);
+    }
+  }
+
+  private final class CountingFiler implements Filer {
+    private final Filer delegate;
+
+    CountingFiler(Filer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements)
+        throws IOException {
+      count(Counter.GENERATED_CLASSES, 1);
+      return new ForwardingJavaFileObject<JavaFileObject>(
+          delegate.createSourceFile(name, originatingElements)) {
+        @Override
+        public Writer openWriter() throws IOException {
+          return new CountingWriter(super.openWriter());
+        }
+      };
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements)
+        throws IOException {
+      return delegate.createClassFile(name, originatingElements);
+    }
+
+    @Override
+    public FileObject createResource(
+        Location location,
+        CharSequence pkg,
+        CharSequence relativeName,
+        Element... originatingElements)
+        throws IOException {
+      return delegate.createResource(location, pkg, relativeName, originatingElements);
+    }
+
+    @Override
+    public FileObject getResource(Location location, CharSequence pkg, CharSequence relativeName)
+        throws IOException {
+      return delegate.getResource(location, pkg, relativeName);
+    }
+  }
+
+  /** Counts the UTF-8 bytes of the characters written, and adds them up when closed. */
+  private final class CountingWriter extends FilterWriter {
+    private long bytes;
+
+    CountingWriter(Writer delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+      super.write(c);
+      bytes += utf8Length((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+      super.write(chars, offset, length);
+      for (int i = offset; i < offset + length; i++) {
+        bytes += utf8Length(chars[i]);
+      }
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+      super.write(string, offset, length);
+      for (int i = offset; i < offset + length; i++) {
+        bytes += utf8Length(string.charAt(i));
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      super.close();
+      count(Counter.BYTES_WRITTEN, bytes);
+      bytes = 0;
+    }
+  }
 
+  /** Returns the UTF-8 length of {@code c}. Each half of a surrogate pair counts for 2 bytes. */
+  private static int utf8Length(char c) {
+    if (c < 0x80) {
+      return 1;
+    } else if (c < 0x800 || Character.isSurrogate(c)) {
+      return 2;
+    } else {
+      return 3;
+    }
   }
 }
@@ -20,8 +20,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.limit;
 import static com.google.common.collect.Iterables.skip;
-import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 import static dagger.internal.codegen.DaggerGraphs.shortestPath;
+import static dagger.internal.codegen.DaggerGraphs.stronglyConnectedComponents;
 import static dagger.internal.codegen.DaggerStreams.instancesOf;
 import static dagger.internal.codegen.DaggerStreams.toImmutableList;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
@@ -46,7 +46,10 @@ import dagger.model.DependencyRequest;
 import dagger.model.RequestKind;
 import dagger.spi.BindingGraphPlugin;
 import dagger.spi.DiagnosticReporter;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -73,31 +76,44 @@ final class DependencyCycleValidator implements BindingGraphPlugin {
   public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
     ImmutableNetwork<Node, DependencyEdge> dependencyGraph =
         nonCycleBreakingDependencyGraph(bindingGraph);
+    // An edge is part of a cycle only if both of its endpoints are in the same strongly connected
+    // component, so find those once instead of searching for a path back from every edge.
+    Map<Node, ImmutableSet<Node>> components = new HashMap<>();
+    for (ImmutableSet<Node> component : stronglyConnectedComponents(dependencyGraph.asGraph())) {
+      component.forEach(node -> components.put(node, component));
+    }
     // Check each endpoint pair only once, no matter how many parallel edges connect them.
-    Set<EndpointPair<Node>> dependencyEndpointPairs = dependencyGraph.asGraph().edges();
-    Set<EndpointPair<Node>> visited = newHashSetWithExpectedSize(dependencyEndpointPairs.size());
-    for (EndpointPair<Node> endpointPair : dependencyEndpointPairs) {
-      cycleContainingEndpointPair(endpointPair, dependencyGraph, visited)
-          .ifPresent(cycle -> reportCycle(cycle, bindingGraph, diagnosticReporter));
+    Set<EndpointPair<Node>> visited = new HashSet<>();
+    for (EndpointPair<Node> endpointPair : dependencyGraph.asGraph().edges()) {
+      ImmutableSet<Node> component = components.get(endpointPair.source());
+      if (component.contains(endpointPair.target())) {
+        cycleContainingEndpointPair(endpointPair, dependencyGraph, component, visited)
+            .ifPresent(cycle -> reportCycle(cycle, bindingGraph, diagnosticReporter));
+      }
     }
   }
 
+  /**
+   * Returns the shortest cycle that contains {@code endpoints}, unless the pair is part of a cycle
+   * that was already returned. Both endpoints must be in {@code component}.
+   */
   private Optional<Cycle<Node>> cycleContainingEndpointPair(
       EndpointPair<Node> endpoints,
       ImmutableNetwork<Node, DependencyEdge> dependencyGraph,
+      ImmutableSet<Node> component,
       Set<EndpointPair<Node>> visited) {
     if (!visited.add(endpoints)) {
       // don't recheck endpoints we already know are part of a cycle
       return Optional.empty();
     }
 
-    // If there's a path from the target back to the source, there's a cycle.
+    // The path from the target back to the source closes the cycle. Every path between two nodes
+    // in a strongly connected component stays within it, so there's no need to search elsewhere.
     ImmutableList<Node> cycleNodes =
-        shortestPath(dependencyGraph, endpoints.target(), endpoints.source());
-    if (cycleNodes.isEmpty()) {
-      return Optional.empty();
-    }
-
+        shortestPath(
+            node -> Iterables.filter(dependencyGraph.successors(node), component::contains),
+            endpoints.target(),
+            endpoints.source());
     Cycle<Node> cycle = Cycle.fromPath(cycleNodes);
     visited.addAll(cycle.endpointPairs()); // no need to check any edge in this cycle again
     return Optional.of(cycle);
@@ -29,6 +29,7 @@ import static dagger.internal.codegen.DaggerElements.closestEnclosingTypeElement
 import static dagger.internal.codegen.DaggerElements.elementEncloses;
 import static dagger.internal.codegen.DaggerElements.elementToString;
 import static dagger.internal.codegen.DaggerGraphs.shortestPath;
+import static dagger.internal.codegen.DaggerGraphs.shortestPathLengths;
 import static dagger.internal.codegen.DaggerStreams.instancesOf;
 import static dagger.internal.codegen.DaggerStreams.presentValues;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
@@ -41,11 +42,10 @@ import com.google.auto.common.MoreElements;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Table;
 import com.google.errorprone.annotations.FormatMethod;
 import dagger.model.BindingGraph;
 import dagger.model.BindingGraph.ChildFactoryMethodEdge;
@@ -59,6 +59,8 @@ import dagger.spi.BindingGraphPlugin;
 import dagger.spi.DiagnosticReporter;
 import java.util.Comparator;
 import java.util.Formatter;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.processing.Messager;
@@ -146,9 +148,15 @@ final class DiagnosticReporterFactory {
             component ->
                 transform(types.supertypes(component.asType()), type -> asTypeElement(type)));
 
-    /** The shortest path (value) from an entry point (column) to a binding (row). */
-    private final Table<MaybeBinding, DependencyEdge, ImmutableList<Node>> shortestPaths =
-        HashBasedTable.create();
+    /** The entry points that depend on each binding that has been reported. */
+    private final Map<MaybeBinding, ImmutableSet<DependencyEdge>> entryPoints = new HashMap<>();
+
+    /**
+     * The dependency trace for each binding that has been reported. Plugins often report many
+     * dependencies of the same binding, so each trace is computed only once.
+     */
+    private final Map<MaybeBinding, ImmutableList<DependencyEdge>> dependencyTraces =
+        new HashMap<>();
 
     private final BindingGraph graph;
     private final String plugin;
@@ -288,9 +296,9 @@ final class DiagnosticReporterFactory {
       final ImmutableSet<DependencyEdge> entryPoints;
 
       DiagnosticInfo(MaybeBinding binding) {
-        entryPoints = graph.entryPointEdgesDependingOnBinding(binding);
+        entryPoints = entryPointsDependingOn(binding);
         requests = requests(binding);
-        dependencyTrace = dependencyTrace(binding, entryPoints);
+        dependencyTrace = dependencyTrace(binding);
       }
 
       DiagnosticInfo(DependencyEdge dependencyEdge) {
@@ -303,8 +311,8 @@ final class DiagnosticReporterFactory {
         } else {
           // It's not an entry point, so it's part of a binding
           dagger.model.Binding binding = (dagger.model.Binding) source(dependencyEdge);
-          entryPoints = graph.entryPointEdgesDependingOnBinding(binding);
-          dependencyTraceBuilder.addAll(dependencyTrace(binding, entryPoints));
+          entryPoints = entryPointsDependingOn(binding);
+          dependencyTraceBuilder.addAll(dependencyTrace(binding));
         }
         dependencyTrace = dependencyTraceBuilder.build();
       }
@@ -385,18 +393,30 @@ final class DiagnosticReporterFactory {
       }
 
       /**
-       * Returns the dependency trace from one of the {@code entryPoints} to {@code binding} to
-       * {@code message} as a list <i>ending with</i> the entry point.
+       * Returns the dependency trace from one of the entry points that depend on {@code binding} to
+       * {@code binding} as a list <i>ending with</i> the entry point.
        */
       // TODO(ronshapiro): Adding a DependencyPath type to dagger.model could be useful, i.e.
       // bindingGraph.shortestPathFromEntryPoint(DependencyEdge, MaybeBindingNode)
-      ImmutableList<DependencyEdge> dependencyTrace(
+      ImmutableList<DependencyEdge> dependencyTrace(MaybeBinding binding) {
+        return dependencyTraces.computeIfAbsent(
+            binding, b -> computeDependencyTrace(b, entryPointsDependingOn(b)));
+      }
+
+      private ImmutableList<DependencyEdge> computeDependencyTrace(
           MaybeBinding binding, ImmutableSet<DependencyEdge> entryPoints) {
         // Module binding graphs may have bindings unreachable from any entry points. If there are
         // no entry points for this DiagnosticInfo, don't try to print a dependency trace.
         if (entryPoints.isEmpty()) {
           return ImmutableList.of();
         }
+        // One backwards traversal from the binding finds the length of the shortest path from
+        // every entry point, instead of searching forwards from each entry point in turn.
+        ImmutableMap<Node, Integer> pathLengthsToBinding =
+            shortestPathLengths(
+                node -> filter(graph.network().predecessors(node), MaybeBinding.class::isInstance),
+                binding);
+
         // Show the full dependency trace for one entry point.
         DependencyEdge entryPointForTrace =
             min(
@@ -404,7 +424,7 @@ final class DiagnosticReporterFactory {
                 // prefer entry points in components closest to the root
                 rootComponentFirst()
                     // then prefer entry points with a short dependency path to the error
-                    .thenComparing(shortestDependencyPathFirst(binding))
+                    .thenComparing(shortestDependencyPathFirst(pathLengthsToBinding))
                     // then prefer entry points declared in the component to those declared in a
                     // supertype
                     .thenComparing(nearestComponentSupertypeFirst())
@@ -412,7 +432,10 @@ final class DiagnosticReporterFactory {
                     .thenComparing(requestElementDeclarationOrder()));
 
         ImmutableList<Node> shortestBindingPath =
-            shortestPathFromEntryPoint(entryPointForTrace, binding);
+            shortestPath(
+                node -> filter(graph.network().successors(node), MaybeBinding.class::isInstance),
+                graph.network().incidentNodes(entryPointForTrace).target(),
+                binding);
         verify(
             !shortestBindingPath.isEmpty(),
             "no dependency path from %s to %s in %s",
@@ -434,6 +457,11 @@ final class DiagnosticReporterFactory {
         return dependencyTrace.build().reverse();
       }
 
+      /** Returns the entry points that transitively depend on a binding. */
+      ImmutableSet<DependencyEdge> entryPointsDependingOn(MaybeBinding binding) {
+        return entryPoints.computeIfAbsent(binding, graph::entryPointEdgesDependingOnBinding);
+      }
+
       /** Returns all the nonsynthetic dependency requests for a binding. */
       ImmutableSet<DependencyEdge> requests(MaybeBinding binding) {
         return graph.network().inEdges(binding).stream()
@@ -452,26 +480,17 @@ final class DiagnosticReporterFactory {
       }
 
       /**
-       * Returns a comparator that puts entry points whose shortest dependency path to {@code
-       * binding} is shortest first.
+       * Returns a comparator that puts entry points whose shortest dependency path to a binding is
+       * shortest first, given the {@linkplain DaggerGraphs#shortestPathLengths length of the
+       * shortest path} from each node to that binding.
        */
-      Comparator<DependencyEdge> shortestDependencyPathFirst(MaybeBinding binding) {
-        return comparing(entryPoint -> shortestPathFromEntryPoint(entryPoint, binding).size());
-      }
-
-      ImmutableList<Node> shortestPathFromEntryPoint(
-          DependencyEdge entryPoint, MaybeBinding binding) {
-        return shortestPaths
-            .row(binding)
-            .computeIfAbsent(
-                entryPoint,
-                ep ->
-                    shortestPath(
-                        node ->
-                            filter(
-                                graph.network().successors(node), MaybeBinding.class::isInstance),
-                        graph.network().incidentNodes(ep).target(),
-                        binding));
+      Comparator<DependencyEdge> shortestDependencyPathFirst(
+          ImmutableMap<Node, Integer> pathLengthsToBinding) {
+        // An entry point that can't reach the binding sorts first, as its empty path used to.
+        return comparingInt(
+            entryPoint ->
+                pathLengthsToBinding.getOrDefault(
+                    graph.network().incidentNodes(entryPoint).target(), -1));
       }
 
       /**
@@ -28,6 +28,9 @@ import static java.util.Comparator.comparing;
 import static javax.tools.Diagnostic.Kind.ERROR;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
@@ -35,9 +38,12 @@ import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 import dagger.model.Binding;
 import dagger.model.BindingGraph;
 import dagger.model.BindingKind;
@@ -45,11 +51,18 @@ import dagger.model.ComponentPath;
 import dagger.model.Key;
 import dagger.spi.BindingGraphPlugin;
 import dagger.spi.DiagnosticReporter;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
@@ -118,42 +131,98 @@ final class DuplicateBindingsValidator implements BindingGraphPlugin {
    */
   private ImmutableSet<ImmutableSetMultimap<BindingElement, Binding>> duplicateBindingSets(
       BindingGraph bindingGraph) {
-    return groupBindingsByKey(bindingGraph).stream()
-        .flatMap(bindings -> mutuallyVisibleSubsets(bindings).stream())
+    return new MutuallyVisibleBindings(bindingGraph)
+        .sets()
         .map(BindingElement::index)
         .filter(duplicates -> duplicates.keySet().size() > 1)
         .collect(toImmutableSet());
   }
 
-  private static ImmutableSet<ImmutableSet<Binding>> groupBindingsByKey(BindingGraph bindingGraph) {
-    return valueSetsForEachKey(
-        bindingGraph.bindings().stream()
-            .filter(binding -> !binding.kind().equals(MEMBERS_INJECTION))
-            .collect(toImmutableSetMultimap(Binding::key, binding -> binding)));
-  }
-
   /**
-   * Returns the subsets of the input set that contain bindings that are all visible from the same
-   * component. A binding is visible from its component and all its descendants.
+   * The sets of bindings for each key that are all visible from the same component. A binding is
+   * visible from its component and all its descendants.
+   *
+   * <p>The sets are found in one walk down the component tree, which keeps the bindings for each
+   * key that are visible from the ancestors of the current component. This way the cost doesn't
+   * grow with the depth of the tree times the number of bindings.
    */
-  private static ImmutableSet<ImmutableSet<Binding>> mutuallyVisibleSubsets(
-      Set<Binding> duplicateBindings) {
-    ImmutableListMultimap<ComponentPath, Binding> bindingsByComponentPath =
-        Multimaps.index(duplicateBindings, Binding::componentPath);
-    ImmutableSetMultimap.Builder<ComponentPath, Binding> mutuallyVisibleBindings =
-        ImmutableSetMultimap.builder();
-    bindingsByComponentPath
-        .asMap()
-        .forEach(
-            (componentPath, bindings) -> {
-              mutuallyVisibleBindings.putAll(componentPath, bindings);
-              for (ComponentPath ancestor = componentPath; !ancestor.atRoot(); ) {
-                ancestor = ancestor.parent();
-                ImmutableList<Binding> bindingsInAncestor = bindingsByComponentPath.get(ancestor);
-                mutuallyVisibleBindings.putAll(componentPath, bindingsInAncestor);
-              }
-            });
-    return valueSetsForEachKey(mutuallyVisibleBindings.build());
+  private static final class MutuallyVisibleBindings {
+    /** The bindings owned by each component, by key, in the order they appear in the graph. */
+    private final Map<ComponentPath, ListMultimap<Key, Binding>> bindingsByComponent =
+        new LinkedHashMap<>();
+
+    /** For each key, the components that own bindings for it, in the order they appear. */
+    private final SetMultimap<Key, ComponentPath> componentsByKey = LinkedHashMultimap.create();
+
+    private final SetMultimap<ComponentPath, ComponentPath> children = HashMultimap.create();
+
+    /** The bindings for each key that are visible from the ancestors of the current component. */
+    private final Map<Key, Deque<List<Binding>>> visibleInAncestors = new HashMap<>();
+
+    /** The bindings that are visible from a component that owns a binding for a key. */
+    private final Table<ComponentPath, Key, ImmutableSet<Binding>> visibleBindings =
+        HashBasedTable.create();
+
+    MutuallyVisibleBindings(BindingGraph bindingGraph) {
+      for (Binding binding : bindingGraph.bindings()) {
+        if (!binding.kind().equals(MEMBERS_INJECTION)) {
+          bindingsByComponent
+              .computeIfAbsent(binding.componentPath(), path -> ArrayListMultimap.create())
+              .put(binding.key(), binding);
+          componentsByKey.put(binding.key(), binding.componentPath());
+        }
+      }
+
+      ComponentPath root = bindingGraph.rootComponentNode().componentPath();
+      Set<ComponentPath> components = new HashSet<>();
+      components.add(root);
+      for (ComponentPath component : bindingsByComponent.keySet()) {
+        for (ComponentPath current = component; components.add(current); ) {
+          ComponentPath parent = current.parent();
+          children.put(parent, current);
+          current = parent;
+        }
+      }
+
+      visit(root);
+    }
+
+    private void visit(ComponentPath component) {
+      ListMultimap<Key, Binding> ownedBindings =
+          bindingsByComponent.getOrDefault(component, ImmutableListMultimap.of());
+      for (Key key : ownedBindings.keySet()) {
+        Deque<List<Binding>> ancestors =
+            visibleInAncestors.computeIfAbsent(key, k -> new ArrayDeque<>());
+        ImmutableSet.Builder<Binding> visible = ImmutableSet.builder();
+        visible.addAll(ownedBindings.get(key));
+        // The deque iterates from the nearest ancestor to the root.
+        ancestors.forEach(visible::addAll);
+        visibleBindings.put(component, key, visible.build());
+        ancestors.push(ownedBindings.get(key));
+      }
+
+      for (ComponentPath child : children.get(component)) {
+        visit(child);
+      }
+
+      for (Key key : ownedBindings.keySet()) {
+        visibleInAncestors.get(key).pop();
+      }
+    }
+
+    /**
+     * Returns the set of visible bindings for each component that owns a binding for a key, with
+     * the keys in the order they appear in the graph and the components in the order that their
+     * bindings for that key appear.
+     */
+    Stream<ImmutableSet<Binding>> sets() {
+      // entries() would interleave keys in insertion order, so walk the keys one at a time.
+      return componentsByKey.keySet().stream()
+          .flatMap(
+              key ->
+                  componentsByKey.get(key).stream()
+                      .map(component -> visibleBindings.get(component, key)));
+    }
   }
 
   private void reportDuplicateBindings(
@@ -297,10 +366,6 @@ final class DuplicateBindingsValidator implements BindingGraphPlugin {
     }
   }
 
-  private static <E> ImmutableSet<ImmutableSet<E>> valueSetsForEachKey(Multimap<?, E> multimap) {
-    return multimap.asMap().values().stream().map(ImmutableSet::copyOf).collect(toImmutableSet());
-  }
-
   /** Returns the binding of the given kind that is closest to the root component. */
   private static Binding rootmostBindingWithKind(
       Predicate<BindingKind> bindingKindPredicate, ImmutableCollection<Binding> bindings) {
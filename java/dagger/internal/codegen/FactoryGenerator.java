@@ -77,8 +77,9 @@ final class FactoryGenerator extends SourceFileGenerator<ProvisionBinding> {
       SourceVersion sourceVersion,
       DaggerTypes types,
       DaggerElements elements,
-      CompilerOptions compilerOptions) {
-    super(filer, elements, sourceVersion);
+      CompilerOptions compilerOptions,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
     this.types = types;
     this.elements = elements;
     this.compilerOptions = compilerOptions;
@@ -16,15 +16,26 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static com.squareup.javapoet.TypeSpec.anonymousClassBuilder;
 import static dagger.internal.codegen.AnnotationSpecs.Suppression.RAWTYPES;
 import static dagger.internal.codegen.ComponentImplementation.FieldSpecKind.FRAMEWORK_FIELD;
+import static dagger.internal.codegen.ComponentImplementation.MethodSpecKind.PRIVATE_METHOD;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
 import dagger.internal.DelegateFactory;
 import dagger.producers.internal.DelegateProducer;
 import java.util.Optional;
@@ -67,28 +78,157 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
   private final ComponentImplementation componentImplementation;
   private final ResolvedBindings resolvedBindings;
   private final FrameworkInstanceCreationExpression frameworkInstanceCreationExpression;
+  private final boolean initializeLazily;
   private FieldSpec fieldSpec;
+  private String getterName;
   private InitializationState fieldInitializationState = InitializationState.UNINITIALIZED;
 
   FrameworkFieldInitializer(
       ComponentImplementation componentImplementation,
       ResolvedBindings resolvedBindings,
-      FrameworkInstanceCreationExpression frameworkInstanceCreationExpression) {
+      FrameworkInstanceCreationExpression frameworkInstanceCreationExpression,
+      CompilerOptions compilerOptions) {
     this.componentImplementation = checkNotNull(componentImplementation);
     this.resolvedBindings = checkNotNull(resolvedBindings);
     this.frameworkInstanceCreationExpression = checkNotNull(frameworkInstanceCreationExpression);
+    this.initializeLazily =
+        isProvider()
+            && compilerOptions.initializeFrameworkFieldsLazily(
+                componentImplementation.componentDescriptor());
   }
 
   /**
    * Returns the {@link MemberSelect} for the framework field, and adds the field and its
    * initialization code to the component if it's needed and not already added.
+   *
+   * <p>If the field is {@linkplain CompilerOptions#initializeFrameworkFieldsLazily initialized
+   * lazily}, this selects the getter method that initializes it instead.
    */
   @Override
   public final MemberSelect memberSelect() {
+    if (initializeLazily) {
+      addGetter();
+      return MemberSelect.localMethod(componentImplementation.name(), getterName);
+    }
     initializeField();
     return MemberSelect.localField(componentImplementation.name(), checkNotNull(fieldSpec).name);
   }
 
+  /**
+   * Adds the field and a private getter method that initializes it on first access.
+   *
+   * <p>The getter creates the field's framework instance while holding the component's {@linkplain
+   * ComponentImplementation#lazyFieldLock() lazy field lock}, and counts itself in the component's
+   * {@linkplain ComponentImplementation#lazyFieldInitializationDepth() initialization depth} while
+   * it does. Creating one field can create others, including through a dependency cycle. Those
+   * nested fields are assigned right away so that reentrant calls on the same thread find them, but
+   * other threads don't read any field without the lock until the depth is back to zero, when the
+   * outermost getter has finished. So no other thread can see a framework instance whose
+   * dependencies are still being created.
+   *
+   * <p>If the creation expression refers back to this field through a dependency cycle, the field
+   * is set to a placeholder {@code Provider} while its dependencies are created, and the reentrant
+   * call from the same thread returns that placeholder. The placeholder calls the getter each time
+   * it is used, so it never refers to a half-initialized instance. If the creation expression
+   * throws, the field is set back to {@code null}.
+   *
+   * <p>Since the cycle can be entered through any of its fields at runtime, not just through the
+   * one that was {@linkplain InitializationState#DELEGATED delegated} here, a getter only assigns
+   * the field if a reentrant call hasn't already done so.
+   */
+  private void addGetter() {
+    switch (fieldInitializationState) {
+      case UNINITIALIZED:
+        fieldInitializationState = InitializationState.INITIALIZING;
+        FieldSpec field = getOrCreateField();
+        getterName =
+            componentImplementation.getUniqueMethodName(
+                "get" + LOWER_CAMEL.to(UPPER_CAMEL, field.name));
+        CodeBlock fieldInitialization = frameworkInstanceCreationExpression.creationExpression();
+        boolean delegated = fieldInitializationState == InitializationState.DELEGATED;
+        componentImplementation.addMethod(
+            PRIVATE_METHOD, getter(field, fieldInitialization, delegated));
+        fieldInitializationState = InitializationState.INITIALIZED;
+        break;
+
+      case INITIALIZING:
+        fieldInitializationState = InitializationState.DELEGATED;
+        break;
+
+      case DELEGATED:
+      case INITIALIZED:
+        break;
+
+      default:
+        throw new AssertionError("Unhandled initialization state: " + fieldInitializationState);
+    }
+  }
+
+  private MethodSpec getter(FieldSpec field, CodeBlock fieldInitialization, boolean delegated) {
+    String fieldExpression = field.name.equals("local") ? "this.local" : field.name;
+    FieldSpec lock = componentImplementation.lazyFieldLock();
+    FieldSpec depth = componentImplementation.lazyFieldInitializationDepth();
+    CodeBlock.Builder body =
+        CodeBlock.builder()
+            .addStatement("$T local = $L", field.type, fieldExpression)
+            .beginControlFlow("if (local == null || $N != 0)", depth)
+            .beginControlFlow("synchronized ($N)", lock)
+            .addStatement("local = $L", fieldExpression)
+            .beginControlFlow("if (local == null)")
+            .addStatement("$N++", depth)
+            .beginControlFlow("try");
+    if (delegated) {
+      body.addStatement("$L = $L", fieldExpression, placeholder(field))
+          .addStatement("local = $L", fieldInitialization)
+          .addStatement("$L = local", fieldExpression)
+          .nextControlFlow("catch ($T t)", Throwable.class)
+          .addStatement("$L = null", fieldExpression)
+          .addStatement("throw t");
+    } else {
+      body.addStatement("local = $L", fieldInitialization)
+          .beginControlFlow("if ($L == null)", fieldExpression)
+          .addStatement("$L = local", fieldExpression)
+          .nextControlFlow("else")
+          .addStatement("local = $L", fieldExpression)
+          .endControlFlow();
+    }
+    body.nextControlFlow("finally")
+        .addStatement("$N--", depth)
+        .endControlFlow() // try
+        .endControlFlow() // if (local == null)
+        .endControlFlow() // synchronized
+        .endControlFlow()
+        .addStatement("return local");
+
+    return methodBuilder(getterName)
+        .addAnnotations(field.annotations)
+        .addModifiers(PRIVATE)
+        .returns(field.type)
+        .addCode(body.build())
+        .build();
+  }
+
+  /**
+   * Returns a {@code Provider} that calls the getter each time it is used, for a field whose
+   * creation expression refers back to it through a dependency cycle.
+   */
+  private TypeSpec placeholder(FieldSpec field) {
+    TypeName providedType =
+        field.type instanceof ParameterizedTypeName
+            ? getOnlyElement(((ParameterizedTypeName) field.type).typeArguments)
+            : TypeName.OBJECT;
+    return anonymousClassBuilder("")
+        .addSuperinterface(field.type)
+        .addMethod(
+            methodBuilder("get")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .returns(providedType)
+                .addStatement("return $N().get()", getterName)
+                .build())
+        .build();
+  }
+
   /** Adds the field and its initialization code to the component. */
   private void initializeField() {
     switch (fieldInitializationState) {
@@ -147,6 +287,9 @@ class FrameworkFieldInitializer implements FrameworkInstanceSupplier {
         FieldSpec.builder(
             fieldType, componentImplementation.getUniqueFieldName(contributionBindingField.name()));
     contributionField.addModifiers(PRIVATE);
+    if (initializeLazily) {
+      contributionField.addModifiers(VOLATILE);
+    }
     if (useRawType) {
       contributionField.addAnnotation(AnnotationSpecs.suppressWarnings(RAWTYPES));
     }
@@ -40,8 +40,12 @@ final class InaccessibleMapKeyProxyGenerator extends SourceFileGenerator<Contrib
 
   @Inject
   InaccessibleMapKeyProxyGenerator(
-      Filer filer, DaggerTypes types, DaggerElements elements, SourceVersion sourceVersion) {
-    super(filer, elements, sourceVersion);
+      Filer filer,
+      DaggerTypes types,
+      DaggerElements elements,
+      SourceVersion sourceVersion,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
     this.types = types;
     this.elements = elements;
   }
@@ -71,6 +71,11 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
   final class BindingsCollection<B extends Binding> {
     private final Class<?> factoryClass;
     private final Map<Key, B> bindingsByKey = Maps.newLinkedHashMap();
+    /**
+     * The unresolved binding for each generic type, shared by all of its parameterizations. These
+     * are only cached after their type has been validated, so other parameterizations can skip it.
+     */
+    private final Map<TypeElement, B> unresolvedBindingsByType = Maps.newHashMap();
     private final Deque<B> bindingsRequiringGeneration = new ArrayDeque<>();
     private final Set<Key> materializedBindingKeys = Sets.newLinkedHashSet();
 
@@ -91,6 +96,7 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
       // Because Elements instantiated across processing rounds are not guaranteed to be equals() to
       // the logically same element, clear the cache after generating
       bindingsByKey.clear();
+      unresolvedBindingsByType.clear();
     }
 
     /** Returns a previously cached binding. */
@@ -98,6 +104,11 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
       return bindingsByKey.get(key);
     }
 
+    /** Returns the previously cached unresolved binding for a generic type. */
+    B getUnresolvedBinding(TypeElement typeElement) {
+      return unresolvedBindingsByType.get(typeElement);
+    }
+
     /** Caches the binding and generates it if it needs generation. */
     void tryRegisterBinding(B binding, boolean warnIfNotAlreadyGenerated) {
       tryToCacheBinding(binding);
@@ -143,6 +154,9 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
         checkState(previousValue == null || binding.equals(previousValue),
             "couldn't register %s. %s was already registered for %s",
             binding, previousValue, key);
+      } else {
+        // Keep them by type instead, so that each parameterization can reuse them.
+        unresolvedBindingsByType.putIfAbsent(binding.bindingTypeElement().get(), binding);
       }
     }
   }
@@ -188,7 +202,7 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
   private void registerBinding(ProvisionBinding binding, boolean warnIfNotAlreadyGenerated) {
     provisionBindings.tryRegisterBinding(binding, warnIfNotAlreadyGenerated);
     if (binding.unresolved().isPresent()) {
-      provisionBindings.tryToGenerateBinding(binding.unresolved().get(), warnIfNotAlreadyGenerated);
+      provisionBindings.tryRegisterBinding(binding.unresolved().get(), warnIfNotAlreadyGenerated);
     }
   }
 
@@ -213,7 +227,7 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
                 : binding.hasLocalInjectionSites());
     membersInjectionBindings.tryRegisterBinding(binding, warnIfNotAlreadyGenerated);
     if (binding.unresolved().isPresent()) {
-      membersInjectionBindings.tryToGenerateBinding(
+      membersInjectionBindings.tryRegisterBinding(
           binding.unresolved().get(), warnIfNotAlreadyGenerated);
     }
   }
@@ -236,17 +250,26 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
       return Optional.of(cachedBinding);
     }
 
-    ValidationReport<TypeElement> report = injectValidator.validateConstructor(constructorElement);
-    report.printMessagesTo(messager);
-    if (report.isClean()) {
-      ProvisionBinding binding = bindingFactory.injectionBinding(constructorElement, resolvedType);
-      registerBinding(binding, warnIfNotAlreadyGenerated);
-      if (!binding.injectionSites().isEmpty()) {
-        tryRegisterMembersInjectedType(typeElement, resolvedType, warnIfNotAlreadyGenerated);
+    // Every parameterization of a generic type shares its constructor, so once one of them has
+    // been validated, the others only need to resolve the binding for their type arguments.
+    ProvisionBinding unresolvedBinding = provisionBindings.getUnresolvedBinding(typeElement);
+    if (unresolvedBinding == null) {
+      ValidationReport<TypeElement> report =
+          injectValidator.validateConstructor(constructorElement);
+      report.printMessagesTo(messager);
+      if (!report.isClean()) {
+        return Optional.empty();
       }
-      return Optional.of(binding);
     }
-    return Optional.empty();
+
+    ProvisionBinding binding =
+        bindingFactory.injectionBinding(
+            constructorElement, resolvedType, Optional.ofNullable(unresolvedBinding));
+    registerBinding(binding, warnIfNotAlreadyGenerated);
+    if (!binding.injectionSites().isEmpty()) {
+      tryRegisterMembersInjectedType(typeElement, resolvedType, warnIfNotAlreadyGenerated);
+    }
+    return Optional.of(binding);
   }
 
   @Override
@@ -266,20 +289,27 @@ final class InjectBindingRegistryImpl implements InjectBindingRegistry {
       return Optional.of(cachedBinding);
     }
 
-    ValidationReport<TypeElement> report =
-        injectValidator.validateMembersInjectionType(typeElement);
-    report.printMessagesTo(messager);
-    if (report.isClean()) {
-      MembersInjectionBinding binding = bindingFactory.membersInjectionBinding(type, resolvedType);
-      registerBinding(binding, warnIfNotAlreadyGenerated);
-      for (Optional<DeclaredType> supertype = types.nonObjectSuperclass(type);
-          supertype.isPresent();
-          supertype = types.nonObjectSuperclass(supertype.get())) {
-        getOrFindMembersInjectionBinding(keyFactory.forMembersInjectedType(supertype.get()));
+    MembersInjectionBinding unresolvedBinding =
+        membersInjectionBindings.getUnresolvedBinding(typeElement);
+    if (unresolvedBinding == null) {
+      ValidationReport<TypeElement> report =
+          injectValidator.validateMembersInjectionType(typeElement);
+      report.printMessagesTo(messager);
+      if (!report.isClean()) {
+        return Optional.empty();
       }
-      return Optional.of(binding);
     }
-    return Optional.empty();
+
+    MembersInjectionBinding binding =
+        bindingFactory.membersInjectionBinding(
+            type, resolvedType, Optional.ofNullable(unresolvedBinding));
+    registerBinding(binding, warnIfNotAlreadyGenerated);
+    for (Optional<DeclaredType> supertype = types.nonObjectSuperclass(type);
+        supertype.isPresent();
+        supertype = types.nonObjectSuperclass(supertype.get())) {
+      getOrFindMembersInjectionBinding(keyFactory.forMembersInjectedType(supertype.get()));
+    }
+    return Optional.of(binding);
   }
 
   @CanIgnoreReturnValue
@@ -41,8 +41,9 @@ final class InnerSwitchingProviders extends SwitchingProviders {
   InnerSwitchingProviders(
       ComponentImplementation componentImplementation,
       ComponentBindingExpressions componentBindingExpressions,
-      DaggerTypes types) {
-    super(componentImplementation, types);
+      DaggerTypes types,
+      CompilerOptions compilerOptions) {
+    super(componentImplementation, types, compilerOptions);
     this.componentBindingExpressions = componentBindingExpressions;
     this.types = types;
   }
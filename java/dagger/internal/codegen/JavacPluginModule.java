@@ -51,6 +51,13 @@ abstract class JavacPluginModule {
         .scopeCycleValidationType(NONE)
         .warnIfInjectionFactoryNotGeneratedUpstream(false)
         .fastInit(false)
+        .lockFreeScopedProviders(false)
+        .memoizeStableMultibindings(false)
+        .lazyFrameworkFields(false)
+        .parallelBindingGraphValidation(false)
+        .bindingGraphFingerprintCache(false)
+        .maxCasesPerSwitch(CompilerOptions.DEFAULT_MAX_CASES_PER_SWITCH)
+        .switchingProviderPartitioning(SwitchingProviderPartitioning.CASE_COUNT)
         .aheadOfTimeSubcomponents(false)
         .moduleBindingValidationType(NONE)
         .moduleHasDifferentScopesDiagnosticKind(NOTE)
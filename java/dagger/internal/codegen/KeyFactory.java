@@ -46,6 +46,7 @@ import dagger.producers.Producer;
 import dagger.producers.Production;
 import dagger.producers.internal.ProductionImplementation;
 import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -53,6 +54,7 @@ import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -61,10 +63,18 @@ import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeMirror;
 
-/** A factory for {@link Key}s. */
-final class KeyFactory {
+/**
+ * A factory for {@link Key}s.
+ *
+ * <p>Keys are interned until the end of the processing round, so that equal keys from this factory
+ * are usually the same instance and {@link Key#equals(Object)} returns at its identity check rather
+ * than comparing types.
+ */
+@Singleton
+final class KeyFactory implements ClearableCache {
   private final DaggerTypes types;
   private final DaggerElements elements;
+  private final Map<Key, Key> internedKeys = new HashMap<>();
 
   @Inject
   KeyFactory(DaggerTypes types, DaggerElements elements) {
@@ -72,6 +82,16 @@ final class KeyFactory {
     this.elements = checkNotNull(elements);
   }
 
+  private Key intern(Key key) {
+    Key interned = internedKeys.putIfAbsent(key, key);
+    return interned == null ? key : interned;
+  }
+
+  @Override
+  public void clearCache() {
+    internedKeys.clear();
+  }
+
   private TypeMirror boxPrimitives(TypeMirror type) {
     return type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
   }
@@ -111,11 +131,11 @@ final class KeyFactory {
     checkArgument(subcomponentCreatorMethod.getKind().equals(METHOD));
     ExecutableType resolvedMethod =
         asExecutable(types.asMemberOf(declaredContainer, subcomponentCreatorMethod));
-    return Key.builder(resolvedMethod.getReturnType()).build();
+    return intern(Key.builder(resolvedMethod.getReturnType()).build());
   }
 
   Key forSubcomponentCreator(TypeMirror creatorType) {
-    return Key.builder(creatorType).build();
+    return intern(Key.builder(creatorType).build());
   }
 
   Key forProvidesMethod(ExecutableElement method, TypeElement contributingModule) {
@@ -169,10 +189,11 @@ final class KeyFactory {
     Key key = forMethod(method, keyType);
     return contributionType.equals(ContributionType.UNIQUE)
         ? key
-        : key.toBuilder()
-            .multibindingContributionIdentifier(
-                new MultibindingContributionIdentifier(method, contributingModule))
-            .build();
+        : intern(
+            key.toBuilder()
+                .multibindingContributionIdentifier(
+                    new MultibindingContributionIdentifier(method, contributingModule))
+                .build());
   }
 
   /**
@@ -236,36 +257,41 @@ final class KeyFactory {
   }
 
   Key forInjectConstructorWithResolvedType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type).build());
   }
 
   // TODO(ronshapiro): Remove these conveniences which are simple wrappers around Key.Builder
   Key forType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type).build());
   }
 
   Key forMembersInjectedType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type).build());
   }
 
   Key forQualifiedType(Optional<AnnotationMirror> qualifier, TypeMirror type) {
-    return Key.builder(boxPrimitives(type)).qualifier(qualifier).build();
+    return intern(Key.builder(boxPrimitives(type)).qualifier(qualifier).build());
   }
 
   Key forProductionExecutor() {
-    return Key.builder(elements.getTypeElement(Executor.class).asType())
-        .qualifier(SimpleAnnotationMirror.of(elements.getTypeElement(Production.class)))
-        .build();
+    return intern(
+        Key.builder(elements.getTypeElement(Executor.class).asType())
+            .qualifier(SimpleAnnotationMirror.of(elements.getTypeElement(Production.class)))
+            .build());
   }
 
   Key forProductionImplementationExecutor() {
-    return Key.builder(elements.getTypeElement(Executor.class).asType())
-        .qualifier(SimpleAnnotationMirror.of(elements.getTypeElement(ProductionImplementation.class)))
-        .build();
+    return intern(
+        Key.builder(elements.getTypeElement(Executor.class).asType())
+            .qualifier(
+                SimpleAnnotationMirror.of(
+                    elements.getTypeElement(ProductionImplementation.class)))
+            .build());
   }
 
   Key forProductionComponentMonitor() {
-    return Key.builder(elements.getTypeElement(ProductionComponentMonitor.class).asType()).build();
+    return intern(
+        Key.builder(elements.getTypeElement(ProductionComponentMonitor.class).asType()).build());
   }
 
   /**
@@ -317,9 +343,10 @@ final class KeyFactory {
       if (!mapType.isRawType()) {
         for (Class<?> frameworkClass : asList(Provider.class, Producer.class, Produced.class)) {
           if (mapType.valuesAreTypeOf(frameworkClass)) {
-            return key.toBuilder()
-                .type(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass)))
-                .build();
+            return intern(
+                key.toBuilder()
+                    .type(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass)))
+                    .build());
           }
         }
       }
@@ -362,7 +389,10 @@ final class KeyFactory {
             types.getDeclaredType(
                 wrappingElement, mapType.unwrappedValueType(currentWrappingClass));
         return Optional.of(
-            possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType)).build());
+            intern(
+                possibleMapKey.toBuilder()
+                    .type(mapOf(mapType.keyType(), wrappedValueType))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -387,7 +417,10 @@ final class KeyFactory {
         }
         DeclaredType wrappedValueType = types.getDeclaredType(wrappingElement, mapType.valueType());
         return Optional.of(
-            possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType)).build());
+            intern(
+                possibleMapKey.toBuilder()
+                    .type(mapOf(mapType.keyType(), wrappedValueType))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -402,12 +435,23 @@ final class KeyFactory {
       SetType setType = SetType.from(key);
       if (!setType.isRawType() && setType.elementsAreTypeOf(wrappingClass)) {
         return Optional.of(
-            key.toBuilder().type(setOf(setType.unwrappedElementType(wrappingClass))).build());
+            intern(
+                key.toBuilder().type(setOf(setType.unwrappedElementType(wrappingClass))).build()));
       }
     }
     return Optional.empty();
   }
 
+  /**
+   * Returns the key of the multibinding that {@code key} contributes to: {@code key} without its
+   * {@link Key#multibindingContributionIdentifier()}.
+   */
+  Key unwrapMultibindingKey(Key key) {
+    return key.multibindingContributionIdentifier().isPresent()
+        ? intern(key.toBuilder().multibindingContributionIdentifier(Optional.empty()).build())
+        : intern(key);
+  }
+
   /**
    * If {@code key}'s type is {@code Optional<T>} for some {@code T}, returns a key with the same
    * qualifier whose type is {@linkplain RequestKinds#extractKeyType(RequestKind, TypeMirror)}
@@ -420,8 +464,9 @@ final class KeyFactory {
 
     TypeMirror optionalValueType = OptionalType.from(key).valueType();
     return Optional.of(
-        key.toBuilder()
-            .type(extractKeyType(getRequestKind(optionalValueType), optionalValueType))
-            .build());
+        intern(
+            key.toBuilder()
+                .type(extractKeyType(getRequestKind(optionalValueType), optionalValueType))
+                .build()));
   }
 }
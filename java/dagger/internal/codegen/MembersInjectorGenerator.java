@@ -67,8 +67,12 @@ final class MembersInjectorGenerator extends SourceFileGenerator<MembersInjectio
 
   @Inject
   MembersInjectorGenerator(
-      Filer filer, DaggerElements elements, DaggerTypes types, SourceVersion sourceVersion) {
-    super(filer, elements, sourceVersion);
+      Filer filer,
+      DaggerElements elements,
+      DaggerTypes types,
+      SourceVersion sourceVersion,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
     this.types = types;
     this.elements = elements;
   }
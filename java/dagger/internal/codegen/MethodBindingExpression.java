@@ -29,6 +29,7 @@ import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.TypeName;
 import dagger.internal.DoubleCheck;
+import dagger.internal.MemoizedLock;
 import dagger.internal.MemoizedSentinel;
 import dagger.internal.codegen.ComponentDescriptor.ComponentMethodDescriptor;
 import dagger.internal.codegen.ModifiableBindingMethods.ModifiableBindingMethod;
@@ -156,6 +157,8 @@ abstract class MethodBindingExpression extends BindingExpression {
         return new SingleCheckedMethodImplementation();
       case DOUBLE_CHECK:
         return new DoubleCheckedMethodImplementation();
+      case LOCKING_DOUBLE_CHECK:
+        return new LockingDoubleCheckedMethodImplementation();
     }
     throw new AssertionError(methodImplementationStrategy);
   }
@@ -193,6 +196,11 @@ abstract class MethodBindingExpression extends BindingExpression {
     SIMPLE,
     SINGLE_CHECK,
     DOUBLE_CHECK,
+    /**
+     * Like {@link #DOUBLE_CHECK}, but initializes the instance while holding a {@link
+     * MemoizedLock} instead of a monitor.
+     */
+    LOCKING_DOUBLE_CHECK,
     ;
   }
 
@@ -315,4 +323,49 @@ abstract class MethodBindingExpression extends BindingExpression {
     }
   }
 
+  /**
+   * Defines a method body for double checked caching of the given {@code wrappedBindingExpression}
+   * that waits on a {@link MemoizedLock} rather than a monitor, so that virtual threads are not
+   * pinned while another thread creates the instance.
+   */
+  private final class LockingDoubleCheckedMethodImplementation
+      extends BindingMethodImplementation {
+    private final Supplier<String> fieldName = Suppliers.memoize(this::createField);
+
+    @Override
+    CodeBlock implementation(Supplier<CodeBlock> simpleBindingExpression) {
+      String fieldExpression =
+          fieldName.get().equals("local") || fieldName.get().equals("lock")
+              ? "this." + fieldName.get()
+              : fieldName.get();
+      return CodeBlock.builder()
+          .addStatement("$T local = $L", TypeName.OBJECT, fieldExpression)
+          .beginControlFlow("if (local instanceof $T)", MemoizedLock.class)
+          .addStatement("$1T lock = ($1T) local", MemoizedLock.class)
+          .addStatement("lock.lock()")
+          .beginControlFlow("try")
+          .addStatement("local = $L", fieldExpression)
+          .beginControlFlow("if (local instanceof $T)", MemoizedLock.class)
+          .addStatement("local = $L", simpleBindingExpression.get())
+          .addStatement("$1L = $2T.reentrantCheck($1L, local)", fieldExpression, MemoizedLock.class)
+          .endControlFlow()
+          .nextControlFlow("finally")
+          .addStatement("lock.unlock()")
+          .endControlFlow()
+          .endControlFlow()
+          .addStatement("return ($T) local", returnType())
+          .build();
+    }
+
+    private String createField() {
+      String name =
+          componentImplementation.getUniqueFieldName(KeyVariableNamer.name(binding.key()));
+      componentImplementation.addField(
+          PRIVATE_METHOD_SCOPED_FIELD,
+          FieldSpec.builder(TypeName.OBJECT, name, PRIVATE, VOLATILE)
+              .initializer("new $T()", MemoizedLock.class)
+              .build());
+      return name;
+    }
+  }
 }
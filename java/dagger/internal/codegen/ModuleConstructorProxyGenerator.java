@@ -47,8 +47,11 @@ final class ModuleConstructorProxyGenerator extends SourceFileGenerator<TypeElem
 
   @Inject
   ModuleConstructorProxyGenerator(
-      Filer filer, DaggerElements elements, SourceVersion sourceVersion) {
-    super(filer, elements, sourceVersion);
+      Filer filer,
+      DaggerElements elements,
+      SourceVersion sourceVersion,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
     this.elements = elements;
   }
 
@@ -46,10 +46,13 @@ import dagger.Provides;
 import dagger.model.Key;
 import dagger.multibindings.Multibinds;
 import dagger.producers.Produces;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -98,13 +101,16 @@ abstract class ModuleDescriptor {
         .collect(toImmutableSet());
   }
 
-  static final class Factory {
+  @Singleton
+  static final class Factory implements ClearableCache {
     private final DaggerElements elements;
     private final BindingFactory bindingFactory;
     private final MultibindingDeclaration.Factory multibindingDeclarationFactory;
     private final DelegateDeclaration.Factory bindingDelegateDeclarationFactory;
     private final SubcomponentDeclaration.Factory subcomponentDeclarationFactory;
     private final OptionalBindingDeclaration.Factory optionalBindingDeclarationFactory;
+    private final DaggerStatistics daggerStatistics;
+    private final Map<TypeElement, ModuleDescriptor> cache = new HashMap<>();
 
     @Inject
     Factory(
@@ -113,16 +119,33 @@ abstract class ModuleDescriptor {
         MultibindingDeclaration.Factory multibindingDeclarationFactory,
         DelegateDeclaration.Factory bindingDelegateDeclarationFactory,
         SubcomponentDeclaration.Factory subcomponentDeclarationFactory,
-        OptionalBindingDeclaration.Factory optionalBindingDeclarationFactory) {
+        OptionalBindingDeclaration.Factory optionalBindingDeclarationFactory,
+        DaggerStatistics daggerStatistics) {
       this.elements = elements;
       this.bindingFactory = bindingFactory;
       this.multibindingDeclarationFactory = multibindingDeclarationFactory;
       this.bindingDelegateDeclarationFactory = bindingDelegateDeclarationFactory;
       this.subcomponentDeclarationFactory = subcomponentDeclarationFactory;
       this.optionalBindingDeclarationFactory = optionalBindingDeclarationFactory;
+      this.daggerStatistics = daggerStatistics;
     }
 
+    /**
+     * Returns the descriptor for a module. Modules are often installed in many components, so
+     * descriptors are cached until the end of the processing round.
+     */
     ModuleDescriptor create(TypeElement moduleElement) {
+      ModuleDescriptor cached = cache.get(moduleElement);
+      if (cached != null) {
+        daggerStatistics.moduleDescriptorCacheHit();
+        return cached;
+      }
+      ModuleDescriptor moduleDescriptor = createUncached(moduleElement);
+      cache.put(moduleElement, moduleDescriptor);
+      return moduleDescriptor;
+    }
+
+    private ModuleDescriptor createUncached(TypeElement moduleElement) {
       ImmutableSet.Builder<ContributionBinding> bindings = ImmutableSet.builder();
       ImmutableSet.Builder<DelegateDeclaration> delegates = ImmutableSet.builder();
       ImmutableSet.Builder<MultibindingDeclaration> multibindingDeclarations =
@@ -161,6 +184,11 @@ abstract class ModuleDescriptor {
           ModuleKind.forAnnotatedElement(moduleElement).get());
     }
 
+    @Override
+    public void clearCache() {
+      cache.clear();
+    }
+
     /** Returns all the modules transitively included by given modules, including the arguments. */
     ImmutableSet<ModuleDescriptor> transitiveModules(Iterable<TypeElement> modules) {
       return ImmutableSet.copyOf(
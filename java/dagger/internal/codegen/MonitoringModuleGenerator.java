@@ -46,8 +46,12 @@ import javax.lang.model.element.TypeElement;
 final class MonitoringModuleGenerator extends SourceFileGenerator<TypeElement> {
 
   @Inject
-  MonitoringModuleGenerator(Filer filer, DaggerElements elements, SourceVersion sourceVersion) {
-    super(filer, elements, sourceVersion);
+  MonitoringModuleGenerator(
+      Filer filer,
+      DaggerElements elements,
+      SourceVersion sourceVersion,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
   }
 
   @Override
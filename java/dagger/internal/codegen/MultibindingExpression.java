@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static dagger.internal.codegen.BindingRequest.bindingRequest;
 
 import com.google.common.collect.ImmutableSet;
@@ -83,6 +84,60 @@ abstract class MultibindingExpression extends SimpleInvocationBindingExpression
     return Optional.empty();
   }
 
+  /**
+   * Returns {@code true} if {@code resolvedBindings} is a provision multibinding with at least one
+   * contribution, and every contribution always provides the same instance. Such a multibinding
+   * can be built once and then reused for every request.
+   *
+   * <p>A contribution always provides the same instance if it is scoped (but not {@link
+   * dagger.Reusable @Reusable}), if it is the component or an instance passed to the component, or
+   * if it is a {@code @Binds} method that delegates to such a binding. {@code Map<K, Provider<V>>}
+   * multibindings are never included, since their factories already return the same map.
+   */
+  static boolean hasOnlyStableContributions(
+      ResolvedBindings resolvedBindings, BindingGraph graph) {
+    ContributionBinding binding = resolvedBindings.contributionBinding();
+    if (!binding.bindingType().equals(BindingType.PROVISION)
+        || binding.dependencies().isEmpty()) {
+      return false;
+    }
+    switch (binding.kind()) {
+      case MULTIBOUND_SET:
+        break;
+      case MULTIBOUND_MAP:
+        if (MapType.from(binding.key()).valuesAreFrameworkType()) {
+          return false;
+        }
+        break;
+      default:
+        return false;
+    }
+    return binding.dependencies().stream()
+        .allMatch(dependency -> isStable(contributionBinding(dependency, graph), graph));
+  }
+
+  private static boolean isStable(ContributionBinding binding, BindingGraph graph) {
+    if (binding.scope().isPresent()) {
+      return !binding.scope().get().isReusable();
+    }
+    switch (binding.kind()) {
+      case COMPONENT:
+      case COMPONENT_DEPENDENCY:
+      case BOUND_INSTANCE:
+        return true;
+      case DELEGATE:
+        return isStable(
+            contributionBinding(getOnlyElement(binding.dependencies()), graph), graph);
+      default:
+        return false;
+    }
+  }
+
+  private static ContributionBinding contributionBinding(
+      DependencyRequest dependency, BindingGraph graph) {
+    return graph.contributionBindings().get(dependency.key()).contributionBinding();
+  }
+
   private BindingRequest bindingRequest() {
     return BindingRequest.bindingRequest(binding.key(), RequestKind.INSTANCE);
   }
@@ -25,7 +25,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import dagger.model.BindingGraph;
 import dagger.model.BindingGraph.DependencyEdge;
-import dagger.spi.BindingGraphPlugin;
 import dagger.spi.DiagnosticReporter;
 import javax.inject.Inject;
 
@@ -33,7 +32,9 @@ import javax.inject.Inject;
  * Reports errors or warnings (depending on the {@code -Adagger.nullableValidation} value) for each
  * non-nullable dependency request that is satisfied by a nullable binding.
  */
-final class NullableBindingValidator implements BindingGraphPlugin {
+final class NullableBindingValidator implements ThreadSafeBindingGraphPlugin {
+  private static final String NULLABLE_TO_NON_NULLABLE =
+      "%s is not nullable, but is being provided by %s";
 
   private final CompilerOptions compilerOptions;
 
@@ -46,12 +47,13 @@ final class NullableBindingValidator implements BindingGraphPlugin {
   public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
     for (dagger.model.Binding binding : nullableBindings(bindingGraph)) {
       for (DependencyEdge dependencyEdge : nonNullableDependencies(bindingGraph, binding)) {
+        // Formatting the key and binding uses javac's type model, so let the reporter do it.
         diagnosticReporter.reportDependency(
             compilerOptions.nullableValidationKind(),
             dependencyEdge,
-            nullableToNonNullable(
-                binding.key().toString(),
-                binding.toString())); // binding.toString() will include the @Nullable
+            NULLABLE_TO_NON_NULLABLE,
+            binding.key(),
+            binding); // binding.toString() will include the @Nullable
       }
     }
   }
@@ -77,6 +79,6 @@ final class NullableBindingValidator implements BindingGraphPlugin {
 
   @VisibleForTesting
   static String nullableToNonNullable(String key, String binding) {
-    return String.format("%s is not nullable, but is being provided by %s", key, binding);
+    return String.format(NULLABLE_TO_NON_NULLABLE, key, binding);
   }
 }
@@ -51,11 +51,15 @@ final class ProcessingEnvironmentModule {
   }
 
   @Provides
-  Filer filer(CompilerOptions compilerOptions) {
+  Filer filer(CompilerOptions compilerOptions, DaggerStatistics daggerStatistics) {
+    Filer filer = processingEnvironment.getFiler();
+    if (compilerOptions.statisticsFile().isPresent()) {
+      filer = daggerStatistics.countingFiler(filer);
+    }
     if (compilerOptions.headerCompilation() || !compilerOptions.formatGeneratedSource()) {
-      return processingEnvironment.getFiler();
+      return filer;
     } else {
-      return new FormattingFiler(processingEnvironment.getFiler());
+      return new FormattingFiler(filer);
     }
   }
 
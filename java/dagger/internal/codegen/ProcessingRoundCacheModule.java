@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import dagger.Binds;
+import dagger.Module;
+import dagger.multibindings.IntoSet;
+
+/** Binds the {@link ClearableCache}s that {@link ComponentProcessor} clears after each round. */
+@Module
+interface ProcessingRoundCacheModule {
+  @Binds
+  @IntoSet
+  ClearableCache moduleDescriptorFactory(ModuleDescriptor.Factory cache);
+
+  @Binds
+  @IntoSet
+  ClearableCache keyFactory(KeyFactory cache);
+}
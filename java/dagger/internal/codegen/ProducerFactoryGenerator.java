@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static com.google.auto.common.MoreElements.isAnnotationPresent;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verifyNotNull;
 import static com.squareup.javapoet.ClassName.OBJECT;
@@ -60,6 +61,7 @@ import com.squareup.javapoet.TypeSpec;
 import dagger.model.DependencyRequest;
 import dagger.model.Key;
 import dagger.model.RequestKind;
+import dagger.producers.InlineWhenReady;
 import dagger.producers.Producer;
 import dagger.producers.internal.AbstractProducesMethodProducer;
 import dagger.producers.internal.Producers;
@@ -84,8 +86,9 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
       DaggerElements elements,
       SourceVersion sourceVersion,
       CompilerOptions compilerOptions,
-      KeyFactory keyFactory) {
-    super(filer, elements, sourceVersion);
+      KeyFactory keyFactory,
+      DaggerStatistics daggerStatistics) {
+    super(filer, elements, sourceVersion, daggerStatistics);
     this.compilerOptions = compilerOptions;
     this.keyFactory = keyFactory;
   }
@@ -158,11 +161,19 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
         });
     ImmutableMap<Key, FieldSpec> fields = fieldsBuilder.build();
 
-    constructorBuilder.addStatement(
-        "super($N, $L, $N)",
-        verifyNotNull(monitorParameterName[0]),
-        producerTokenConstruction(generatedTypeName, binding),
-        verifyNotNull(executorParameterName[0]));
+    if (isAnnotationPresent(binding.bindingElement().get(), InlineWhenReady.class)) {
+      constructorBuilder.addStatement(
+          "super($N, $L, $N, true)",
+          verifyNotNull(monitorParameterName[0]),
+          producerTokenConstruction(generatedTypeName, binding),
+          verifyNotNull(executorParameterName[0]));
+    } else {
+      constructorBuilder.addStatement(
+          "super($N, $L, $N)",
+          verifyNotNull(monitorParameterName[0]),
+          producerTokenConstruction(generatedTypeName, binding),
+          verifyNotNull(executorParameterName[0]));
+    }
 
     if (binding.requiresModuleInstance()) {
       assignField(constructorBuilder, moduleField.get(), null);
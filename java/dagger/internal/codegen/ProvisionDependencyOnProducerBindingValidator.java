@@ -25,7 +25,6 @@ import static javax.tools.Diagnostic.Kind.ERROR;
 import dagger.model.BindingGraph;
 import dagger.model.BindingGraph.DependencyEdge;
 import dagger.model.BindingGraph.Node;
-import dagger.spi.BindingGraphPlugin;
 import dagger.spi.DiagnosticReporter;
 import java.util.stream.Stream;
 import javax.inject.Inject;
@@ -35,7 +34,7 @@ import javax.inject.Inject;
  * binding.
  */
 // TODO(b/29509141): Clarify the error.
-final class ProvisionDependencyOnProducerBindingValidator implements BindingGraphPlugin {
+final class ProvisionDependencyOnProducerBindingValidator implements ThreadSafeBindingGraphPlugin {
 
   @Inject
   ProvisionDependencyOnProducerBindingValidator() {}
@@ -47,15 +46,24 @@ final class ProvisionDependencyOnProducerBindingValidator implements BindingGrap
 
   @Override
   public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
+    // Formatting the keys uses javac's type model, so let the reporter do it.
     provisionDependenciesOnProductionBindings(bindingGraph)
         .forEach(
-            provisionDependent ->
+            provisionDependent -> {
+              if (provisionDependent.isEntryPoint()) {
                 diagnosticReporter.reportDependency(
                     ERROR,
                     provisionDependent,
-                    provisionDependent.isEntryPoint()
-                        ? entryPointErrorMessage(provisionDependent)
-                        : dependencyErrorMessage(provisionDependent, bindingGraph)));
+                    "%s is a provision entry-point, which cannot depend on a production.",
+                    provisionDependent.dependencyRequest().key());
+              } else {
+                diagnosticReporter.reportDependency(
+                    ERROR,
+                    provisionDependent,
+                    "%s is a provision, which cannot depend on a production.",
+                    bindingRequestingDependency(provisionDependent, bindingGraph).key());
+              }
+            });
   }
 
   private Stream<DependencyEdge> provisionDependenciesOnProductionBindings(
@@ -98,17 +106,4 @@ final class ProvisionDependencyOnProducerBindingValidator implements BindingGrap
         source);
     return (dagger.model.Binding) source;
   }
-
-  private String entryPointErrorMessage(DependencyEdge entryPoint) {
-    return String.format(
-        "%s is a provision entry-point, which cannot depend on a production.",
-        entryPoint.dependencyRequest().key());
-  }
-
-  private String dependencyErrorMessage(
-      DependencyEdge dependencyOnProduction, BindingGraph bindingGraph) {
-    return String.format(
-        "%s is a provision, which cannot depend on a production.",
-        bindingRequestingDependency(dependencyOnProduction, bindingGraph).key());
-  }
 }
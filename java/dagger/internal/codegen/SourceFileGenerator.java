@@ -18,6 +18,7 @@ package dagger.internal.codegen;
 
 import static com.google.auto.common.GeneratedAnnotations.generatedAnnotation;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static dagger.internal.codegen.DaggerStatistics.Phase.SOURCE_FILE_GENERATOR;
 
 import com.google.common.base.Throwables;
 import com.squareup.javapoet.AnnotationSpec;
@@ -43,15 +44,21 @@ abstract class SourceFileGenerator<T> {
   private final Filer filer;
   private final DaggerElements elements;
   private final SourceVersion sourceVersion;
+  private final DaggerStatistics daggerStatistics;
 
-  SourceFileGenerator(Filer filer, DaggerElements elements, SourceVersion sourceVersion) {
+  SourceFileGenerator(
+      Filer filer,
+      DaggerElements elements,
+      SourceVersion sourceVersion,
+      DaggerStatistics daggerStatistics) {
     this.filer = checkNotNull(filer);
     this.elements = checkNotNull(elements);
     this.sourceVersion = checkNotNull(sourceVersion);
+    this.daggerStatistics = checkNotNull(daggerStatistics);
   }
 
   SourceFileGenerator(SourceFileGenerator<T> delegate) {
-    this(delegate.filer, delegate.elements, delegate.sourceVersion);
+    this(delegate.filer, delegate.elements, delegate.sourceVersion, delegate.daggerStatistics);
   }
 
   /**
@@ -68,6 +75,13 @@ abstract class SourceFileGenerator<T> {
 
   /** Generates a source file to be compiled for {@code T}. */
   void generate(T input) throws SourceFileGenerationException {
+    try (DaggerStatistics.Timer timer =
+        daggerStatistics.startTimer(SOURCE_FILE_GENERATOR, getClass().getSimpleName())) {
+      generateSourceFile(input);
+    }
+  }
+
+  private void generateSourceFile(T input) throws SourceFileGenerationException {
     ClassName generatedTypeName = nameGeneratedType(input);
     Optional<TypeSpec.Builder> type = write(generatedTypeName, input);
     if (!type.isPresent()) {
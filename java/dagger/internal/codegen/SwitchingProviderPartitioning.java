@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+/**
+ * How the cases of a fastInit {@code SwitchingProvider} are split into {@code get()} methods, set
+ * with {@code -Adagger.switchingProviderPartitioning}.
+ */
+enum SwitchingProviderPartitioning {
+  /**
+   * Each method holds at most {@link CompilerOptions#maxCasesPerSwitch()} cases, in the order the
+   * cases were requested.
+   */
+  CASE_COUNT,
+
+  /**
+   * Like {@link #CASE_COUNT}, but a method whose estimated bytecode would exceed a budget below
+   * HotSpot's 8000-byte huge method limit is split into smaller ones behind a second {@code
+   * switch}, so that every method can be compiled.
+   */
+  BYTECODE_SIZE,
+
+  /**
+   * Like {@link #BYTECODE_SIZE}, but the cases that are expected to be called most often (those
+   * with the most {@code Provider} and {@code Lazy} requests in the graph) are moved into the
+   * routing {@code get()} method itself, and kept small enough that it stays under HotSpot's
+   * default {@code FreqInlineSize}.
+   */
+  FREQUENCY,
+}
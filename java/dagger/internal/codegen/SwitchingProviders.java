@@ -18,7 +18,6 @@ package dagger.internal.codegen;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.getLast;
-import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static com.squareup.javapoet.TypeSpec.classBuilder;
 import static dagger.internal.codegen.AnnotationSpecs.Suppression.UNCHECKED;
@@ -28,18 +27,31 @@ import static dagger.internal.codegen.TypeNames.providerOf;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Lists;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
+import dagger.model.DependencyRequest;
 import dagger.model.Key;
+import dagger.model.RequestKind;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.stream.Stream;
 
 /**
  * Keeps track of all provider expression requests for a component.
@@ -73,21 +85,41 @@ abstract class SwitchingProviders {
   }
 
   /**
-   * Each switch size is fixed at 100 cases each and put in its own method. This is to limit the
-   * size of the methods so that we don't reach the "huge" method size limit for Android that will
-   * prevent it from being AOT compiled in some versions of Android (b/77652521). This generally
-   * starts to happen around 1500 cases, but we are choosing 100 to be safe.
+   * By default, each switch size is fixed at 100 cases each and put in its own method. This is to
+   * limit the size of the methods so that we don't reach the "huge" method size limit for Android
+   * that will prevent it from being AOT compiled in some versions of Android (b/77652521). This
+   * generally starts to happen around 1500 cases, but we are choosing 100 to be safe. The number
+   * can be changed with {@code -Adagger.maxCasesPerSwitch}, and {@code
+   * -Adagger.switchingProviderPartitioning} selects a {@link SwitchingProviderPartitioning}.
    */
   // TODO(user): Include a proguard_spec in the Dagger library to prevent inlining these methods?
-  // TODO(ronshapiro): Consider making this configurable via a flag.
-  private static final int MAX_CASES_PER_SWITCH = 100;
+  private final int maxCasesPerSwitch;
+
+  private final long maxCasesPerClass;
+  private final SwitchingProviderPartitioning partitioning;
+
+  /**
+   * The estimated bytecode size that a {@code get} method may reach before the cases are split into
+   * another method. HotSpot won't JIT-compile methods larger than 8000 bytes ({@code
+   * HugeMethodLimit}), and the estimate is rough, so this leaves some headroom.
+   */
+  private static final int MAX_ESTIMATED_BYTES_PER_SWITCH = 6000;
+
+  /**
+   * The estimated bytecode size of the frequently called cases that are kept in the routing {@code
+   * get()} method. This is half of HotSpot's default {@code FreqInlineSize} (325 bytes), leaving
+   * the rest for the routing code.
+   */
+  private static final int MAX_ESTIMATED_BYTES_OF_FREQUENT_CASES = 160;
+
+  /** The estimated bytecode size of a case label, cast, and return, not counting its expression. */
+  private static final int ESTIMATED_BYTES_PER_CASE = 12;
 
-  private static final long MAX_CASES_PER_CLASS = MAX_CASES_PER_SWITCH * MAX_CASES_PER_SWITCH;
   private static final TypeVariableName T = TypeVariableName.get("T");
 
   /**
    * Maps a {@link Key} to an instance of a {@link SwitchingProviderBuilder}. Each group of {@code
-   * MAX_CASES_PER_CLASS} keys will share the same instance.
+   * maxCasesPerClass} keys will share the same instance.
    */
   private final Map<Key, SwitchingProviderBuilder> switchingProviderBuilders =
       new LinkedHashMap<>();
@@ -96,11 +128,19 @@ abstract class SwitchingProviders {
   private final ClassName owningComponent;
   private final DaggerTypes types;
   private final UniqueNameSet switchingProviderNames = new UniqueNameSet();
+  private final Supplier<ImmutableMultiset<Key>> frameworkRequestCounts =
+      Suppliers.memoize(this::countFrameworkRequests);
 
-  SwitchingProviders(ComponentImplementation componentImplementation, DaggerTypes types) {
+  SwitchingProviders(
+      ComponentImplementation componentImplementation,
+      DaggerTypes types,
+      CompilerOptions compilerOptions) {
     this.componentImplementation = checkNotNull(componentImplementation);
     this.types = checkNotNull(types);
     this.owningComponent = checkNotNull(componentImplementation).name();
+    this.maxCasesPerSwitch = compilerOptions.maxCasesPerSwitch();
+    this.maxCasesPerClass = (long) maxCasesPerSwitch * maxCasesPerSwitch;
+    this.partitioning = compilerOptions.switchingProviderPartitioning();
   }
 
   /** Returns the {@link TypeSpec} for a {@code SwitchingProvider} based on the given builder. */
@@ -116,7 +156,7 @@ abstract class SwitchingProviders {
   }
 
   private SwitchingProviderBuilder getSwitchingProviderBuilder() {
-    if (switchingProviderBuilders.size() % MAX_CASES_PER_CLASS == 0) {
+    if (switchingProviderBuilders.size() % maxCasesPerClass == 0) {
       String name = switchingProviderNames.getUniqueName("SwitchingProvider");
       SwitchingProviderBuilder switchingProviderBuilder =
           new SwitchingProviderBuilder(owningComponent.nestedClass(name));
@@ -126,12 +166,32 @@ abstract class SwitchingProviders {
     return getLast(switchingProviderBuilders.values());
   }
 
+  /**
+   * Counts the requests for each key that may call a {@code SwitchingProvider} more than once:
+   * those for a {@code Provider}, {@code Lazy}, or {@code Provider<Lazy>}. This is used as the
+   * expected call frequency of each case by {@link SwitchingProviderPartitioning#FREQUENCY}.
+   */
+  private ImmutableMultiset<Key> countFrameworkRequests() {
+    BindingGraph graph = componentImplementation.graph();
+    return ImmutableMultiset.copyOf(
+        Stream.concat(
+                graph.contributionBindings().values().stream()
+                    .flatMap(resolvedBindings -> resolvedBindings.bindings().stream())
+                    .flatMap(binding -> binding.dependencies().stream()),
+                graph.componentDescriptor().entryPointMethods().stream()
+                    .map(method -> method.dependencyRequest().get()))
+            .filter(request -> !request.kind().equals(RequestKind.INSTANCE))
+            .map(DependencyRequest::key)
+            .iterator());
+  }
+
   // TODO(user): Consider just merging this class with SwitchingProviders.
   private final class SwitchingProviderBuilder {
     // Keep the switch cases ordered by switch id. The switch Ids are assigned in pre-order
     // traversal, but the switch cases are assigned in post-order traversal of the binding graph.
     private final Map<Integer, CodeBlock> switchCases = new TreeMap<>();
     private final Map<Key, Integer> switchIds = new HashMap<>();
+    private final Map<Integer, Integer> estimatedBytes = new HashMap<>();
     private final ClassName switchingProviderType;
 
     SwitchingProviderBuilder(ClassName switchingProviderType) {
@@ -149,12 +209,14 @@ abstract class SwitchingProviders {
     }
 
     private CodeBlock createSwitchCaseCodeBlock(SwitchCase switchCase) {
+      int switchId = switchIds.get(switchCase.key());
       CodeBlock instanceCodeBlock =
           switchCase.getReturnExpression(switchingProviderType).box(types).codeBlock();
+      estimatedBytes.put(switchId, estimateBytes(instanceCodeBlock));
 
       return CodeBlock.builder()
           // TODO(user): Is there something else more useful than the key?
-          .add("case $L: // $L \n", switchIds.get(switchCase.key()), switchCase.key())
+          .add("case $L: // $L \n", switchId, switchCase.key())
           .addStatement("return ($T) $L", T, instanceCodeBlock)
           .build();
     }
@@ -168,36 +230,47 @@ abstract class SwitchingProviders {
     }
 
     private ImmutableList<MethodSpec> getMethods() {
-      ImmutableList<CodeBlock> switchCodeBlockPartitions = switchCodeBlockPartitions();
-      if (switchCodeBlockPartitions.size() == 1) {
-        // There are less than MAX_CASES_PER_SWITCH cases, so no need for extra get methods.
+      if (fitsInOneSwitch(switchCases.keySet())) {
         return ImmutableList.of(
             methodBuilder("get")
                 .addModifiers(PUBLIC)
                 .addAnnotation(suppressWarnings(UNCHECKED))
                 .addAnnotation(Override.class)
                 .returns(T)
-                .addCode(getOnlyElement(switchCodeBlockPartitions))
+                .addCode(switchCodeBlock(switchCases.keySet()))
                 .build());
       }
+      switch (partitioning) {
+        case CASE_COUNT:
+          return caseCountPartitionedMethods();
+        case BYTECODE_SIZE:
+          return sizePartitionedMethods(ImmutableSet.of());
+        case FREQUENCY:
+          return sizePartitionedMethods(frequentCases());
+      }
+      throw new AssertionError(partitioning);
+    }
+
+    private boolean fitsInOneSwitch(Collection<Integer> ids) {
+      return ids.size() <= maxCasesPerSwitch
+          && (partitioning.equals(SwitchingProviderPartitioning.CASE_COUNT)
+              || estimatedBytes(ids) <= MAX_ESTIMATED_BYTES_PER_SWITCH);
+    }
 
+    private ImmutableList<MethodSpec> caseCountPartitionedMethods() {
       // This is the main public "get" method that will route to private getter methods.
       MethodSpec.Builder routerMethod =
           methodBuilder("get")
               .addModifiers(PUBLIC)
               .addAnnotation(Override.class)
               .returns(T)
-              .beginControlFlow("switch (id / $L)", MAX_CASES_PER_SWITCH);
+              .beginControlFlow("switch (id / $L)", maxCasesPerSwitch);
 
       ImmutableList.Builder<MethodSpec> getMethods = ImmutableList.builder();
-      for (int i = 0; i < switchCodeBlockPartitions.size(); i++) {
-        MethodSpec method =
-            methodBuilder("get" + i)
-                .addModifiers(PRIVATE)
-                .addAnnotation(suppressWarnings(UNCHECKED))
-                .returns(T)
-                .addCode(switchCodeBlockPartitions.get(i))
-                .build();
+      List<List<Integer>> partitions =
+          Lists.partition(ImmutableList.copyOf(switchCases.keySet()), maxCasesPerSwitch);
+      for (int i = 0; i < partitions.size(); i++) {
+        MethodSpec method = partitionMethod(i, partitions.get(i));
         getMethods.add(method);
         routerMethod.addStatement("case $L: return $N()", i, method);
       }
@@ -207,18 +280,172 @@ abstract class SwitchingProviders {
       return getMethods.add(routerMethod.build()).build();
     }
 
-    private ImmutableList<CodeBlock> switchCodeBlockPartitions() {
-      return Lists.partition(ImmutableList.copyOf(switchCases.values()), MAX_CASES_PER_SWITCH)
-          .stream()
-          .map(
-              partitionCases ->
-                  CodeBlock.builder()
-                      .beginControlFlow("switch (id)")
-                      .add(CodeBlocks.concat(partitionCases))
-                      .addStatement("default: throw new $T(id)", AssertionError.class)
-                      .endControlFlow()
-                      .build())
-          .collect(toImmutableList());
+    /**
+     * Returns methods for blocks of {@code maxCasesPerSwitch} consecutive ids, routed to with
+     * {@code switch (id / maxCasesPerSwitch)} like the {@linkplain #caseCountPartitionedMethods()
+     * case count partitions}. A block whose cases don't {@linkplain #fitsInOneSwitch fit in one
+     * switch} is split into equal sub-blocks that do, with a second {@code switch} to route among
+     * them, so that routing takes at most two switches however many cases there are.
+     *
+     * <p>The {@code frequentCases} are left out of the blocks and handled directly in the routing
+     * {@code get()} method.
+     */
+    private ImmutableList<MethodSpec> sizePartitionedMethods(ImmutableSet<Integer> frequentCases) {
+      MethodSpec.Builder routerMethod =
+          methodBuilder("get").addModifiers(PUBLIC).addAnnotation(Override.class).returns(T);
+      if (!frequentCases.isEmpty()) {
+        routerMethod
+            .addAnnotation(suppressWarnings(UNCHECKED))
+            .beginControlFlow("switch (id)")
+            .addCode(CodeBlocks.concat(switchCases(frequentCases)))
+            .endControlFlow();
+      }
+      routerMethod.beginControlFlow("switch (id / $L)", maxCasesPerSwitch);
+
+      ImmutableList.Builder<MethodSpec> getMethods = ImmutableList.builder();
+      int methodCount = 0;
+      for (Map.Entry<Integer, List<Integer>> block :
+          blocks(switchCases.keySet(), frequentCases, 0, maxCasesPerSwitch).entrySet()) {
+        List<Integer> ids = block.getValue();
+        MethodSpec method;
+        if (fitsInOneSwitch(ids)) {
+          method = partitionMethod(methodCount++, ids);
+        } else {
+          int blockStart = block.getKey() * maxCasesPerSwitch;
+          int subBlockSize = subBlockSize(ids, blockStart);
+          MethodSpec.Builder blockRouter =
+              methodBuilder("get" + methodCount++)
+                  .addModifiers(PRIVATE)
+                  .returns(T)
+                  .beginControlFlow("switch ((id - $L) / $L)", blockStart, subBlockSize);
+          for (Map.Entry<Integer, List<Integer>> subBlock :
+              blocks(ids, frequentCases, blockStart, subBlockSize).entrySet()) {
+            MethodSpec subBlockMethod = partitionMethod(methodCount++, subBlock.getValue());
+            getMethods.add(subBlockMethod);
+            blockRouter.addStatement("case $L: return $N()", subBlock.getKey(), subBlockMethod);
+          }
+          method =
+              blockRouter
+                  .addStatement("default: throw new $T(id)", AssertionError.class)
+                  .endControlFlow()
+                  .build();
+        }
+        getMethods.add(method);
+        routerMethod.addStatement("case $L: return $N()", block.getKey(), method);
+      }
+
+      routerMethod.addStatement("default: throw new $T(id)", AssertionError.class).endControlFlow();
+
+      return getMethods.add(routerMethod.build()).build();
+    }
+
+    /**
+     * Groups the {@code ids}, other than the {@code frequentCases}, into blocks of {@code
+     * blockSize} consecutive ids starting at {@code start}, keyed by {@code (id - start) /
+     * blockSize}. Blocks with no ids are left out.
+     */
+    private static ImmutableSortedMap<Integer, List<Integer>> blocks(
+        Collection<Integer> ids, ImmutableSet<Integer> frequentCases, int start, int blockSize) {
+      SortedMap<Integer, List<Integer>> blocks = new TreeMap<>();
+      for (int id : ids) {
+        if (!frequentCases.contains(id)) {
+          blocks.computeIfAbsent((id - start) / blockSize, block -> new ArrayList<>()).add(id);
+        }
+      }
+      return ImmutableSortedMap.copyOfSorted(blocks);
+    }
+
+    /**
+     * Returns the largest size of the sub-blocks of the block that starts at {@code blockStart} for
+     * which every sub-block {@linkplain #fitsInOneSwitch fits in one switch}, or 1 if a single case
+     * doesn't fit.
+     */
+    private int subBlockSize(List<Integer> ids, int blockStart) {
+      int subBlockSize = maxCasesPerSwitch;
+      while (subBlockSize > 1) {
+        subBlockSize = (subBlockSize + 1) / 2;
+        if (blocks(ids, ImmutableSet.of(), blockStart, subBlockSize).values().stream()
+            .allMatch(this::fitsInOneSwitch)) {
+          break;
+        }
+      }
+      return subBlockSize;
+    }
+
+    /**
+     * Returns the ids of the cases that are expected to be called most often, up to {@link
+     * #MAX_ESTIMATED_BYTES_OF_FREQUENT_CASES}.
+     */
+    private ImmutableSet<Integer> frequentCases() {
+      ImmutableMultiset<Key> requestCounts = frameworkRequestCounts.get();
+      Map<Integer, Key> keys = new HashMap<>();
+      switchIds.forEach((key, id) -> keys.put(id, key));
+      ImmutableSet.Builder<Integer> frequentCases = ImmutableSet.builder();
+      int bytes = 0;
+      int cases = 0;
+      for (int id :
+          switchCases.keySet().stream()
+              .filter(id -> requestCounts.count(keys.get(id)) > 0)
+              .sorted(
+                  Comparator.comparing((Integer id) -> requestCounts.count(keys.get(id)))
+                      .reversed()
+                      .thenComparing(id -> id))
+              .collect(toImmutableList())) {
+        bytes += estimatedBytes.get(id);
+        if (bytes > MAX_ESTIMATED_BYTES_OF_FREQUENT_CASES || ++cases > maxCasesPerSwitch) {
+          break;
+        }
+        frequentCases.add(id);
+      }
+      return frequentCases.build();
+    }
+
+    private MethodSpec partitionMethod(int index, List<Integer> ids) {
+      return methodBuilder("get" + index)
+          .addModifiers(PRIVATE)
+          .addAnnotation(suppressWarnings(UNCHECKED))
+          .returns(T)
+          .addCode(switchCodeBlock(ids))
+          .build();
+    }
+
+    private CodeBlock switchCodeBlock(Collection<Integer> ids) {
+      return CodeBlock.builder()
+          .beginControlFlow("switch (id)")
+          .add(CodeBlocks.concat(switchCases(ids)))
+          .addStatement("default: throw new $T(id)", AssertionError.class)
+          .endControlFlow()
+          .build();
+    }
+
+    private ImmutableList<CodeBlock> switchCases(Collection<Integer> ids) {
+      return ids.stream().sorted().map(switchCases::get).collect(toImmutableList());
+    }
+
+    private int estimatedBytes(Collection<Integer> ids) {
+      return ids.stream().mapToInt(estimatedBytes::get).sum();
+    }
+  }
+
+  /**
+   * Returns a rough estimate of the bytecode size of a case that returns {@code expression}: a
+   * member select, invocation, or argument usually compiles to an instruction with a two-byte
+   * operand.
+   */
+  private static int estimateBytes(CodeBlock expression) {
+    int bytes = ESTIMATED_BYTES_PER_CASE;
+    String source = expression.toString();
+    for (int i = 0; i < source.length(); i++) {
+      switch (source.charAt(i)) {
+        case '.':
+        case '(':
+        case ',':
+          bytes += 3;
+          break;
+        default:
+          break;
+      }
     }
+    return bytes;
   }
 }
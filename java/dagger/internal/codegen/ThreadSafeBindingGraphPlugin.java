@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import dagger.spi.BindingGraphPlugin;
+
+/**
+ * A {@link BindingGraphPlugin} that can visit a graph on a thread other than the processing thread,
+ * because it never uses javac's type model to do so: no {@link javax.lang.model.util.Types},
+ * {@link javax.lang.model.util.Elements} or {@link KeyFactory}, even to format its messages. Since
+ * printing a key, binding or type uses the type model, messages that include them must be reported
+ * through the {@link dagger.spi.DiagnosticReporter} methods that take a format string and
+ * arguments, which {@link BufferingDiagnosticReporter} formats later on the processing thread.
+ *
+ * <p>With {@code -Adagger.parallelBindingGraphValidation}, only these validation plugins run
+ * concurrently.
+ */
+interface ThreadSafeBindingGraphPlugin extends BindingGraphPlugin {}
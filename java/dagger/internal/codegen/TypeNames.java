@@ -27,6 +27,7 @@ import dagger.MembersInjector;
 import dagger.internal.DoubleCheck;
 import dagger.internal.Factory;
 import dagger.internal.InstanceFactory;
+import dagger.internal.LockFreeDoubleCheck;
 import dagger.internal.MapFactory;
 import dagger.internal.MapProviderFactory;
 import dagger.internal.MembersInjectors;
@@ -67,6 +68,7 @@ final class TypeNames {
   static final ClassName LAZY = ClassName.get(Lazy.class);
   static final ClassName LIST = ClassName.get(List.class);
   static final ClassName LISTENABLE_FUTURE = ClassName.get(ListenableFuture.class);
+  static final ClassName LOCK_FREE_DOUBLE_CHECK = ClassName.get(LockFreeDoubleCheck.class);
   static final ClassName MAP_FACTORY = ClassName.get(MapFactory.class);
   static final ClassName MAP_OF_PRODUCED_PRODUCER = ClassName.get(MapOfProducedProducer.class);
   static final ClassName MAP_OF_PRODUCER_PRODUCER = ClassName.get(MapOfProducerProducer.class);
@@ -25,6 +25,8 @@ import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSetMultimap;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.graph.EndpointPair;
@@ -33,6 +35,8 @@ import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.Network;
 import com.google.common.graph.NetworkBuilder;
 import dagger.Module;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 import javax.lang.model.element.ExecutableElement;
@@ -128,9 +132,12 @@ public abstract class BindingGraph {
 
   /** Returns the bindings for a key. */
   public final ImmutableSet<Binding> bindings(Key key) {
-    return nodeStream(Binding.class)
-        .filter(binding -> binding.key().equals(key))
-        .collect(toImmutableSet());
+    return bindingsByKey().get(key);
+  }
+
+  @Memoized
+  ImmutableSetMultimap<Key, Binding> bindingsByKey() {
+    return nodeStream(Binding.class).collect(toImmutableSetMultimap(Binding::key, node -> node));
   }
 
   /** Returns the nodes that represent missing bindings. */
@@ -145,21 +152,32 @@ public abstract class BindingGraph {
 
   /** Returns the component node for a component. */
   public final Optional<ComponentNode> componentNode(ComponentPath component) {
-    return nodeStream(ComponentNode.class)
-        .filter(node -> node.componentPath().equals(component))
-        .findFirst();
+    return Optional.ofNullable(componentNodesByPath().get(component));
+  }
+
+  @Memoized
+  ImmutableMap<ComponentPath, ComponentNode> componentNodesByPath() {
+    Map<ComponentPath, ComponentNode> componentNodes = new LinkedHashMap<>();
+    nodeStream(ComponentNode.class)
+        .forEach(node -> componentNodes.putIfAbsent(node.componentPath(), node));
+    return ImmutableMap.copyOf(componentNodes);
   }
 
   /** Returns the component nodes for a component. */
   public final ImmutableSet<ComponentNode> componentNodes(TypeElement component) {
+    return componentNodesByComponent().get(component);
+  }
+
+  @Memoized
+  ImmutableSetMultimap<TypeElement, ComponentNode> componentNodesByComponent() {
     return nodeStream(ComponentNode.class)
-        .filter(node -> node.componentPath().currentComponent().equals(component))
-        .collect(toImmutableSet());
+        .collect(
+            toImmutableSetMultimap(node -> node.componentPath().currentComponent(), node -> node));
   }
 
   /** Returns the component node for the root component. */
   public final ComponentNode rootComponentNode() {
-    return nodeStream(ComponentNode.class)
+    return componentNodesByPath().values().stream()
         .filter(node -> node.componentPath().atRoot())
         .findFirst()
         .get();
@@ -185,9 +203,13 @@ public abstract class BindingGraph {
 
   /** Returns the dependency edges for a dependency request. */
   public final ImmutableSet<DependencyEdge> dependencyEdges(DependencyRequest dependencyRequest) {
+    return dependencyEdgesByRequest().get(dependencyRequest);
+  }
+
+  @Memoized
+  ImmutableSetMultimap<DependencyRequest, DependencyEdge> dependencyEdgesByRequest() {
     return dependencyEdgeStream()
-        .filter(edge -> edge.dependencyRequest().equals(dependencyRequest))
-        .collect(toImmutableSet());
+        .collect(toImmutableSetMultimap(DependencyEdge::dependencyRequest, edge -> edge));
   }
 
   /**
@@ -262,8 +284,8 @@ public abstract class BindingGraph {
   }
 
   /** Returns a subnetwork that contains all nodes but only {@link DependencyEdge}s. */
-  // TODO(dpb): Make public. Cache.
-  private ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
+  @Memoized
+  public ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
     MutableNetwork<Node, DependencyEdge> dependencyGraph =
         NetworkBuilder.from(network())
             .expectedNodeCount(network().nodes().size())
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+import dagger.internal.Beta;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates a {@link Produces} method that may run on the thread that requests it, instead of on
+ * the {@link Production @Production} executor, if all of its asynchronous inputs are already done
+ * when it is requested.
+ *
+ * <p>This avoids handing the method off to the executor, which is worthwhile for methods that are
+ * cheap and don't block, such as those that just combine or reshape their inputs. If any input is
+ * still pending when the method is requested, it runs on the executor once they are all done, as
+ * it would without this annotation.
+ *
+ * <p>A method run inline may run on the thread that called an entry point, or on the thread of
+ * whichever producer requested it, so it must not rely on running on the executor. The {@link
+ * dagger.producers.monitoring.ProducerMonitor} for the method is still notified of each step in the
+ * same order.
+ *
+ * <p>This annotation has no effect on methods that are not annotated with {@link Produces}.
+ */
+@Documented
+@Target(METHOD)
+@Retention(CLASS)
+@Beta
+public @interface InlineWhenReady {}
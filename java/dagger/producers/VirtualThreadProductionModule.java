@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import dagger.Module;
+import dagger.Provides;
+import dagger.internal.Beta;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A module that binds the {@link Production @Production} executor to one that calls each {@link
+ * Produces @Produces} method on a new virtual thread.
+ *
+ * <p>Include this module in a {@link ProductionComponent} instead of binding an executor yourself
+ * when producer methods block, for example on I/O. A blocked virtual thread doesn't hold on to a
+ * platform thread, so thousands of producers can block at once without a large thread pool.
+ *
+ * <p>Producers still return {@link com.google.common.util.concurrent.ListenableFuture}s, are
+ * cancelled, and notify their {@link dagger.producers.monitoring.ProducerMonitor}s just as they do
+ * with any other executor. Producer methods that block while holding a monitor (in a {@code
+ * synchronized} block) may still pin the platform thread that runs their virtual thread.
+ *
+ * <p>Virtual threads require Java 21 or later. On earlier versions, requesting the executor throws
+ * {@link UnsupportedOperationException}.
+ */
+@Beta
+@Module
+public final class VirtualThreadProductionModule {
+  @Provides
+  @Production
+  static Executor virtualThreadExecutor() {
+    if (VIRTUAL_THREAD_FACTORY == null) {
+      throw new UnsupportedOperationException(
+          "VirtualThreadProductionModule requires Java 21 or later");
+    }
+    return VirtualThreadExecutor.INSTANCE;
+  }
+
+  /** Returns true if this runtime supports virtual threads. */
+  static boolean isSupported() {
+    return VIRTUAL_THREAD_FACTORY != null;
+  }
+
+  /**
+   * A factory for unstarted virtual threads, or {@code null} before Java 21. Found reflectively so
+   * that this module still compiles against, and loads on, earlier versions.
+   */
+  private static final ThreadFactory VIRTUAL_THREAD_FACTORY = virtualThreadFactory();
+
+  private static ThreadFactory virtualThreadFactory() {
+    try {
+      // Thread.ofVirtual().name("dagger-production-", 0).factory()
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Method name = builderClass.getMethod("name", String.class, long.class);
+      Method factory = builderClass.getMethod("factory");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = name.invoke(builder, "dagger-production-", 0L);
+      return (ThreadFactory) factory.invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      // Before Java 21 the methods are missing, or (as a preview feature) they throw.
+      return null;
+    }
+  }
+
+  /** An executor that starts a new virtual thread for each task. */
+  private enum VirtualThreadExecutor implements Executor {
+    INSTANCE;
+
+    @Override
+    public void execute(Runnable runnable) {
+      VIRTUAL_THREAD_FACTORY.newThread(runnable).start();
+    }
+  }
+
+  private VirtualThreadProductionModule() {}
+}
@@ -21,12 +21,42 @@ import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 import dagger.producers.Producer;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
-/** An abstract {@link Producer} implementation that memoizes the result of its compute method. */
+/**
+ * An abstract {@link Producer} implementation that memoizes the result of its compute method.
+ *
+ * <p>A production component creates all of its producers, but often requests only some of them, so
+ * a producer allocates nothing until it is needed. Whether it has been requested is kept in a field
+ * rather than in a separate object, and its future is only created when it is requested, cancelled
+ * or used as an entry point. All dependents share one view of the producer.
+ */
 public abstract class AbstractProducer<T> implements CancellableProducer<T> {
-  private final AtomicBoolean requested = new AtomicBoolean();
-  private final NonExternallyCancellableFuture<T> future = new NonExternallyCancellableFuture<T>();
+  private static final int UNREQUESTED = 0;
+  private static final int REQUESTED = 1;
+
+  @SuppressWarnings("rawtypes") // the updaters are shared by all instances
+  private static final AtomicIntegerFieldUpdater<AbstractProducer> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(AbstractProducer.class, "state");
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<AbstractProducer, NonExternallyCancellableFuture>
+      FUTURE =
+          AtomicReferenceFieldUpdater.newUpdater(
+              AbstractProducer.class, NonExternallyCancellableFuture.class, "future");
+
+  /**
+   * {@link #UNREQUESTED} (the default, so the constructor doesn't write it), or {@link #REQUESTED}
+   * once {@link #compute()} has been called or can no longer be called.
+   */
+  private volatile int state;
+
+  /** This producer's future, or {@code null} until it is first needed. See {@link #future()}. */
+  private volatile NonExternallyCancellableFuture<T> future;
+
+  /** The view for all dependents, or {@code null} until the first one asks for it. */
+  private Producer<T> dependencyView;
 
   protected AbstractProducer() {}
 
@@ -35,21 +65,45 @@ public abstract class AbstractProducer<T> implements CancellableProducer<T> {
 
   @Override
   public final ListenableFuture<T> get() {
-    if (requested.compareAndSet(false, true)) {
-      future.setFuture(compute());
+    NonExternallyCancellableFuture<T> result = future();
+    if (state == UNREQUESTED && STATE.compareAndSet(this, UNREQUESTED, REQUESTED)) {
+      result.setFuture(compute());
     }
-    return future;
+    return result;
   }
 
   @Override
   public final void cancel(boolean mayInterruptIfRunning) {
-    requested.set(true); // Avoid potentially starting the task later only to cancel it immediately.
-    future.doCancel(mayInterruptIfRunning);
+    state = REQUESTED; // Avoid potentially starting the task later only to cancel it immediately.
+    future().doCancel(mayInterruptIfRunning);
+  }
+
+  /** Returns this producer's future, creating it if this is the first time it is needed. */
+  @SuppressWarnings("unchecked") // FUTURE only ever holds a future for this producer's type
+  private NonExternallyCancellableFuture<T> future() {
+    NonExternallyCancellableFuture<T> result = future;
+    if (result == null) {
+      FUTURE.compareAndSet(this, null, new NonExternallyCancellableFuture<T>());
+      result = future;
+    }
+    return result;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This producer's future can't be cancelled through normal future cancellation, so it doesn't
+   * need to be wrapped for each dependent, and all dependents share one view.
+   */
   @Override
   public Producer<T> newDependencyView() {
-    return new NonCancellationPropagatingView();
+    Producer<T> view = dependencyView;
+    if (view == null) {
+      // Racing threads may each create a view, which is harmless since they are interchangeable.
+      view = new DependencyView();
+      dependencyView = view;
+    }
+    return view;
   }
 
   @Override
@@ -59,16 +113,24 @@ public abstract class AbstractProducer<T> implements CancellableProducer<T> {
     return result;
   }
 
+  /** A view of this producer for its dependents, which can't cancel it. */
+  private final class DependencyView implements Producer<T> {
+    @Override
+    public ListenableFuture<T> get() {
+      return AbstractProducer.this.get();
+    }
+  }
+
   /**
    * A view of this producer that returns a future that can be cancelled without cancelling the
-   * producer itself.
+   * producer itself, so that an entry point can listen for its cancellation.
    */
   private final class NonCancellationPropagatingView implements Producer<T> {
     /**
      * An independently cancellable view of this node. Needs to be cancellable by normal future
      * cancellation so that the view at an entry point can listen for its cancellation.
      */
-    private final ListenableFuture<T> viewFuture = nonCancellationPropagating(future);
+    private final ListenableFuture<T> viewFuture = nonCancellationPropagating(future());
 
     @SuppressWarnings("FutureReturnValueIgnored")
     @Override
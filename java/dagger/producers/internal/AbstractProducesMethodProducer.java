@@ -24,6 +24,8 @@ import com.google.common.util.concurrent.ListenableFuture;
 import dagger.producers.monitoring.ProducerMonitor;
 import dagger.producers.monitoring.ProducerToken;
 import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import javax.inject.Provider;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
@@ -43,26 +45,74 @@ public abstract class AbstractProducesMethodProducer<D, T> extends AbstractProdu
   private final Provider<ProductionComponentMonitor> monitorProvider;
   @NullableDecl private final ProducerToken token;
   private final Provider<Executor> executorProvider;
+  private final boolean inlineWhenReady;
   private volatile ProducerMonitor monitor = null;
 
   protected AbstractProducesMethodProducer(
       Provider<ProductionComponentMonitor> monitorProvider,
       @NullableDecl ProducerToken token,
       Provider<Executor> executorProvider) {
+    this(monitorProvider, token, executorProvider, false);
+  }
+
+  /**
+   * @param inlineWhenReady whether the {@code @Produces} method is annotated with {@link
+   *     dagger.producers.InlineWhenReady}, and so may be called on the requesting thread if its
+   *     dependencies are already done
+   */
+  protected AbstractProducesMethodProducer(
+      Provider<ProductionComponentMonitor> monitorProvider,
+      @NullableDecl ProducerToken token,
+      Provider<Executor> executorProvider,
+      boolean inlineWhenReady) {
     this.monitorProvider = checkNotNull(monitorProvider);
     this.token = token;
     this.executorProvider = checkNotNull(executorProvider);
+    this.inlineWhenReady = inlineWhenReady;
   }
 
   @Override
   protected final ListenableFuture<T> compute() {
     monitor = monitorProvider.get().producerMonitorFor(token);
     monitor.requested();
-    ListenableFuture<T> result = Futures.transformAsync(collectDependencies(), this, this);
+    ListenableFuture<D> dependencies = collectDependencies();
+    ListenableFuture<T> result =
+        inlineWhenReady && dependencies.isDone()
+            ? computeInline(dependencies)
+            : Futures.transformAsync(dependencies, this, this);
     monitor.addCallbackTo(result);
     return result;
   }
 
+  /**
+   * Calls the {@link dagger.producers.Produces} method on this thread, without the future that
+   * {@link Futures#transformAsync(ListenableFuture, AsyncFunction, Executor)} would create. The
+   * monitor is notified the same way as when the method is called on the executor.
+   */
+  private ListenableFuture<T> computeInline(ListenableFuture<D> dependencies) {
+    monitor.ready();
+    D asyncDependencies;
+    try {
+      asyncDependencies = Futures.getDone(dependencies);
+    } catch (ExecutionException e) {
+      return Futures.immediateFailedFuture(e.getCause());
+    } catch (CancellationException e) {
+      return Futures.immediateCancelledFuture();
+    }
+    ListenableFuture<T> result;
+    try {
+      result = apply(asyncDependencies);
+    } catch (Throwable t) {
+      // Futures.transformAsync() also fails its future with anything the function throws.
+      return Futures.immediateFailedFuture(t);
+    }
+    if (result == null) {
+      return Futures.immediateFailedFuture(
+          new NullPointerException("callProducesMethod() returned null instead of a future"));
+    }
+    return result;
+  }
+
   /**
    * Collects the asynchronous dependencies to be passed to {@link
    * Futures#transformAsync(ListenableFuture, AsyncFunction, Executor)}.
@@ -86,7 +136,8 @@ public abstract class AbstractProducesMethodProducer<D, T> extends AbstractProdu
 
   /**
    * Calls the {@link dagger.producers.Produces} method. This will always be called on the {@link
-   * Executor} provided to this producer.
+   * Executor} provided to this producer, unless the method is annotated with {@link
+   * dagger.producers.InlineWhenReady} and its dependencies were done when it was requested.
    */
   protected abstract ListenableFuture<T> callProducesMethod(D asyncDependencies) throws Exception;
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A future that combines the values of some input futures once all of them have succeeded.
+ *
+ * <p>This behaves like {@link Futures#allAsList} followed by {@link Futures#transform}, but without
+ * the intermediate futures and lists. Each input's value is written to its slot in an array as
+ * soon as the input succeeds, and the input that brings a countdown of the remaining inputs to
+ * zero calls {@link #combine(Object[])} with the full array.
+ *
+ * <p>If any input fails or is cancelled, this future fails or is cancelled as soon as it does.
+ * Cancelling this future cancels all of the inputs. If {@link #combine(Object[])} throws, this
+ * future fails with that exception.
+ */
+abstract class CombiningFuture<T> extends AbstractFuture<T> {
+  @SuppressWarnings("rawtypes") // the updater is shared by all instances
+  private static final AtomicIntegerFieldUpdater<CombiningFuture> REMAINING =
+      AtomicIntegerFieldUpdater.newUpdater(CombiningFuture.class, "remaining");
+
+  /** The inputs, or {@code null} once this future is done. */
+  private ListenableFuture<?>[] inputs;
+
+  /** The value of each input that has succeeded, or {@code null} once this future is done. */
+  private Object[] values;
+
+  /** The number of inputs that have not succeeded yet. */
+  private volatile int remaining;
+
+  CombiningFuture(ListenableFuture<?>[] inputs) {
+    this.inputs = inputs;
+    this.values = new Object[inputs.length];
+    this.remaining = inputs.length;
+  }
+
+  /**
+   * Starts listening to the inputs. Subclasses call this once, after they are fully constructed,
+   * since it may call {@link #combine(Object[])} right away.
+   */
+  final void start() {
+    ListenableFuture<?>[] localInputs = inputs;
+    if (localInputs.length == 0) {
+      combineAndSet(values);
+      return;
+    }
+    for (int i = 0; i < localInputs.length; i++) {
+      localInputs[i].addListener(new InputListener(i, localInputs[i]), directExecutor());
+    }
+  }
+
+  /**
+   * Returns the value of this future from the values of the inputs, in the order the inputs were
+   * given.
+   */
+  abstract T combine(Object[] values) throws Exception;
+
+  private void combineAndSet(Object[] localValues) {
+    try {
+      set(combine(localValues));
+    } catch (Throwable t) {
+      setException(t);
+    }
+  }
+
+  @Override
+  protected final void afterDone() {
+    ListenableFuture<?>[] localInputs = inputs;
+    inputs = null;
+    values = null;
+    if (isCancelled() && localInputs != null) {
+      boolean mayInterruptIfRunning = wasInterrupted();
+      for (ListenableFuture<?> input : localInputs) {
+        input.cancel(mayInterruptIfRunning);
+      }
+    }
+  }
+
+  /** Records the value of one input when it is done. */
+  private final class InputListener implements Runnable {
+    private final int index;
+    private final ListenableFuture<?> input;
+
+    InputListener(int index, ListenableFuture<?> input) {
+      this.index = index;
+      this.input = input;
+    }
+
+    @Override
+    public void run() {
+      if (isDone()) {
+        return; // another input failed or was cancelled, or this future was cancelled
+      }
+      Object value;
+      try {
+        value = Futures.getDone(input);
+      } catch (ExecutionException e) {
+        setException(e.getCause());
+        return;
+      } catch (CancellationException e) {
+        cancel(false);
+        return;
+      }
+      Object[] localValues = values;
+      if (localValues == null) {
+        return; // finished concurrently
+      }
+      localValues[index] = value;
+      // The decrement publishes this value to whichever input's listener reaches zero.
+      if (REMAINING.decrementAndGet(CombiningFuture.this) == 0) {
+        combineAndSet(localValues);
+      }
+    }
+  }
+}
@@ -17,19 +17,13 @@
 package dagger.producers.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static dagger.producers.internal.Producers.producerFromProvider;
 
-import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import dagger.producers.Producer;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import javax.inject.Provider;
 
 /**
@@ -88,25 +82,36 @@ public final class MapProducer<K, V> extends AbstractProducer<Map<K, V>> {
 
   @Override
   protected ListenableFuture<Map<K, V>> compute() {
-    final List<ListenableFuture<Map.Entry<K, V>>> listOfEntries = new ArrayList<>();
-    for (final Entry<K, Producer<V>> entry : contributingMap.entrySet()) {
-      listOfEntries.add(
-          Futures.transform(entry.getValue().get(), new Function<V, Entry<K, V>>() {
-            @Override
-            public Entry<K, V> apply(V computedValue) {
-              return Maps.immutableEntry(entry.getKey(), computedValue);
-            }
-          }, directExecutor()));
+    ListenableFuture<?>[] futures = new ListenableFuture<?>[contributingMap.size()];
+    int i = 0;
+    for (Producer<V> producer : contributingMap.values()) {
+      futures[i++] = checkNotNull(producer.get());
     }
+    MapFuture<K, V> result = new MapFuture<>(futures, contributingMap.keySet().asList());
+    result.start();
+    return result;
+  }
+
+  /**
+   * The future returned by {@link #compute()}. Its inputs are the futures of the values, in the
+   * same order as {@link #keys}.
+   */
+  private static final class MapFuture<K, V> extends CombiningFuture<Map<K, V>> {
+    private final ImmutableList<K> keys;
 
-    return Futures.transform(
-        Futures.allAsList(listOfEntries),
-        new Function<List<Map.Entry<K, V>>, Map<K, V>>() {
-          @Override
-          public Map<K, V> apply(List<Map.Entry<K, V>> entries) {
-            return ImmutableMap.copyOf(entries);
-          }
-        },
-        directExecutor());
+    MapFuture(ListenableFuture<?>[] inputs, ImmutableList<K> keys) {
+      super(inputs);
+      this.keys = keys;
+    }
+
+    @SuppressWarnings("unchecked") // the values come from futures of V
+    @Override
+    Map<K, V> combine(Object[] values) {
+      ImmutableMap.Builder<K, V> builder = ImmutableMap.builderWithExpectedSize(values.length);
+      for (int i = 0; i < values.length; i++) {
+        builder.put(keys.get(i), (V) values[i]);
+      }
+      return builder.build();
+    }
   }
 }
@@ -17,17 +17,12 @@
 package dagger.producers.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.util.concurrent.Futures.transform;
-import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static dagger.internal.DaggerCollections.hasDuplicates;
 import static dagger.internal.DaggerCollections.presizedList;
 
-import com.google.common.base.Function;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import dagger.producers.Producer;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -116,32 +111,48 @@ public final class SetProducer<T> extends AbstractProducer<Set<T>> {
    */
   @Override
   public ListenableFuture<Set<T>> compute() {
-    List<ListenableFuture<T>> individualFutures =
-        new ArrayList<ListenableFuture<T>>(individualProducers.size());
+    int individualCount = individualProducers.size();
+    ListenableFuture<?>[] futures =
+        new ListenableFuture<?>[individualCount + collectionProducers.size()];
+    int i = 0;
     for (Producer<T> producer : individualProducers) {
-      individualFutures.add(checkNotNull(producer.get()));
+      futures[i++] = checkNotNull(producer.get());
     }
-
-    // Presize the list of collections produced by the amount of collectionProducers, with one more
-    // for the consolidate individualFutures from Futures.allAsList.
-    List<ListenableFuture<? extends Collection<T>>> futureCollections =
-        new ArrayList<ListenableFuture<? extends Collection<T>>>(collectionProducers.size() + 1);
-    futureCollections.add(Futures.allAsList(individualFutures));
     for (Producer<Collection<T>> producer : collectionProducers) {
-      futureCollections.add(checkNotNull(producer.get()));
+      futures[i++] = checkNotNull(producer.get());
+    }
+    SetFuture<T> result = new SetFuture<T>(futures, individualCount);
+    result.start();
+    return result;
+  }
+
+  /**
+   * The future returned by {@link #compute()}. Its inputs are the individual futures followed by
+   * the collection futures.
+   */
+  private static final class SetFuture<T> extends CombiningFuture<Set<T>> {
+    private final int individualCount;
+
+    SetFuture(ListenableFuture<?>[] inputs, int individualCount) {
+      super(inputs);
+      this.individualCount = individualCount;
+    }
+
+    @SuppressWarnings("unchecked") // the values come from futures of T and Collection<T>
+    @Override
+    Set<T> combine(Object[] values) {
+      int expectedSize = individualCount;
+      for (int i = individualCount; i < values.length; i++) {
+        expectedSize += ((Collection<T>) checkNotNull(values[i])).size();
+      }
+      ImmutableSet.Builder<T> builder = ImmutableSet.builderWithExpectedSize(expectedSize);
+      for (int i = 0; i < individualCount; i++) {
+        builder.add((T) values[i]);
+      }
+      for (int i = individualCount; i < values.length; i++) {
+        builder.addAll((Collection<T>) values[i]);
+      }
+      return builder.build();
     }
-    return transform(
-        Futures.allAsList(futureCollections),
-        new Function<List<Collection<T>>, Set<T>>() {
-          @Override
-          public Set<T> apply(List<Collection<T>> sets) {
-            ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-            for (Collection<T> set : sets) {
-              builder.addAll(set);
-            }
-            return builder.build();
-          }
-        },
-        directExecutor());
   }
 }
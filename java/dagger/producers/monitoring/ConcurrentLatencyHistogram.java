@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The recording side of a {@link LatencyHistogram}. All of the state is preallocated in a single
+ * array, and recording a latency is a few atomic updates to it, without locks or allocation.
+ *
+ * <p>A {@linkplain #snapshot() snapshot} taken while latencies are being recorded is not an
+ * atomic view; it may include a latency in its buckets but not yet in its total, or the reverse.
+ */
+final class ConcurrentLatencyHistogram {
+  private static final int TOTAL = LatencyHistogram.BUCKET_COUNT;
+  private static final int MAX = TOTAL + 1;
+
+  /** The count of each bucket, followed by the total and the max of all latencies. */
+  private final AtomicLongArray slots = new AtomicLongArray(MAX + 1);
+
+  /** Records {@code nanos}. Negative latencies, from a ticker that went backwards, count as 0. */
+  void record(long nanos) {
+    long latency = Math.max(nanos, 0);
+    slots.incrementAndGet(LatencyHistogram.bucketIndex(latency));
+    slots.addAndGet(TOTAL, latency);
+    long max = slots.get(MAX);
+    while (latency > max && !slots.compareAndSet(MAX, max, latency)) {
+      max = slots.get(MAX);
+    }
+  }
+
+  LatencyHistogram snapshot() {
+    long[] bucketCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    for (int i = 0; i < bucketCounts.length; i++) {
+      bucketCounts[i] = slots.get(i);
+    }
+    return new LatencyHistogram(bucketCounts, slots.get(TOTAL), slots.get(MAX));
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import dagger.internal.Beta;
+
+/**
+ * An immutable snapshot of the latencies recorded by a {@link
+ * LatencyHistogramProductionComponentMonitor}.
+ *
+ * <p>Latencies are counted in buckets whose width grows with the latency, so that every recorded
+ * value is within about 12.5% of the bounds of its bucket. Latencies of about 4.5 hours or
+ * more are all counted in the last bucket.
+ */
+@Beta
+public final class LatencyHistogram {
+  /** The number of bits of each latency that are kept exactly, after its highest set bit. */
+  static final int SUB_BUCKET_BITS = 3;
+
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /** The highest bit that may be set in a latency that does not go in the last bucket. */
+  private static final int HIGHEST_EXPONENT = 43;
+
+  static final int BUCKET_COUNT = (HIGHEST_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+  private final long[] bucketCounts;
+  private final long count;
+  private final long totalNanos;
+  private final long maxNanos;
+
+  LatencyHistogram(long[] bucketCounts, long totalNanos, long maxNanos) {
+    this.bucketCounts = bucketCounts;
+    long count = 0;
+    for (long bucketCount : bucketCounts) {
+      count += bucketCount;
+    }
+    this.count = count;
+    this.totalNanos = totalNanos;
+    this.maxNanos = maxNanos;
+  }
+
+  /** Returns the number of latencies that were recorded. */
+  public long count() {
+    return count;
+  }
+
+  /** Returns the sum of the latencies that were recorded, in nanoseconds. */
+  public long totalNanos() {
+    return totalNanos;
+  }
+
+  /** Returns the longest latency that was recorded, in nanoseconds, or 0 if there were none. */
+  public long maxNanos() {
+    return maxNanos;
+  }
+
+  /**
+   * Returns the mean of the latencies that were recorded, in nanoseconds, or 0 if there were none.
+   */
+  public double meanNanos() {
+    return count == 0 ? 0 : (double) totalNanos / count;
+  }
+
+  /**
+   * Returns the latency, in nanoseconds, that {@code percentile} percent of the recorded latencies
+   * are at or below. The result is the upper bound of the bucket that holds that latency, but is
+   * never more than {@link #maxNanos()}. Returns 0 if no latencies were recorded.
+   *
+   * @throws IllegalArgumentException if {@code percentile} is not between 0 and 100
+   */
+  public long percentileNanos(double percentile) {
+    checkArgument(
+        percentile >= 0 && percentile <= 100,
+        "percentile must be between 0 and 100: %s",
+        percentile);
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      seen += bucketCounts[i];
+      if (seen >= rank) {
+        return Math.min(highestValueInBucket(i), maxNanos);
+      }
+    }
+    return maxNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "LatencyHistogram{count=%d, meanNanos=%.0f, p50Nanos=%d, p99Nanos=%d, maxNanos=%d}",
+        count, meanNanos(), percentileNanos(50), percentileNanos(99), maxNanos);
+  }
+
+  /**
+   * Returns the bucket for {@code nanos}. Latencies below {@link #SUB_BUCKET_COUNT} each have their
+   * own bucket; above that, each power of two is split into {@link #SUB_BUCKET_COUNT} buckets of
+   * equal width.
+   */
+  static int bucketIndex(long nanos) {
+    if (nanos < SUB_BUCKET_COUNT) {
+      return nanos < 0 ? 0 : (int) nanos;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    if (exponent > HIGHEST_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (nanos >>> shift) - SUB_BUCKET_COUNT;
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /** Returns the highest latency that goes in the bucket at {@code index}. */
+  static long highestValueInBucket(int index) {
+    if (index == BUCKET_COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
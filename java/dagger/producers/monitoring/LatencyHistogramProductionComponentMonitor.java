@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import dagger.internal.Beta;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monitor that records the latencies of the producers of a production component into histograms
+ * that are shared by every component created by the same {@link Factory}.
+ *
+ * <p>Unlike {@link TimingProductionComponentMonitor}, this does not call out to user code or
+ * allocate per request beyond one small {@link ProducerMonitor} for each producer. The histograms
+ * for each {@link ProducerToken} are allocated the first time that token is seen, and recording
+ * into them is lock-free, so this is cheap enough to leave installed in production. Use {@link
+ * Factory#snapshot()} to read what has been recorded.
+ *
+ * <p>For each producer, this records:
+ *
+ * <ul>
+ *   <li>the latency from when the producer method starts until its future succeeds or fails, as
+ *       {@link TimingProducerMonitor} measures it;
+ *   <li>the time spent in the producer method itself; and
+ *   <li>the number of times it succeeded, failed, or was skipped because an input failed.
+ * </ul>
+ */
+@Beta
+public final class LatencyHistogramProductionComponentMonitor extends ProductionComponentMonitor {
+  private final Factory factory;
+
+  private LatencyHistogramProductionComponentMonitor(Factory factory) {
+    this.factory = factory;
+  }
+
+  @Override
+  public ProducerMonitor producerMonitorFor(ProducerToken token) {
+    return new HistogramProducerMonitor(factory.histogramsFor(token), factory.ticker);
+  }
+
+  /**
+   * A factory for {@link LatencyHistogramProductionComponentMonitor}s. All of the monitors that it
+   * creates record into the same histograms.
+   */
+  public static final class Factory extends ProductionComponentMonitor.Factory {
+    private final Ticker ticker;
+    private final ConcurrentMap<ProducerToken, ProducerHistograms> histograms =
+        new ConcurrentHashMap<>();
+
+    public Factory() {
+      this(Ticker.systemTicker());
+    }
+
+    Factory(Ticker ticker) {
+      this.ticker = ticker;
+    }
+
+    @Override
+    public ProductionComponentMonitor create(Object component) {
+      return new LatencyHistogramProductionComponentMonitor(this);
+    }
+
+    /**
+     * Returns what has been recorded so far for each producer that has been requested from a
+     * component created by this factory.
+     */
+    public ImmutableMap<ProducerToken, ProducerStats> snapshot() {
+      ImmutableMap.Builder<ProducerToken, ProducerStats> snapshot =
+          ImmutableMap.builderWithExpectedSize(histograms.size());
+      for (Map.Entry<ProducerToken, ProducerHistograms> entry : histograms.entrySet()) {
+        snapshot.put(entry.getKey(), entry.getValue().snapshot());
+      }
+      return snapshot.build();
+    }
+
+    private ProducerHistograms histogramsFor(ProducerToken token) {
+      ProducerHistograms existing = histograms.get(token);
+      if (existing != null) {
+        return existing;
+      }
+      ProducerHistograms created = new ProducerHistograms();
+      existing = histograms.putIfAbsent(token, created);
+      return existing != null ? existing : created;
+    }
+  }
+
+  /** A snapshot of what has been recorded for one producer. */
+  public static final class ProducerStats {
+    private final LatencyHistogram latency;
+    private final LatencyHistogram methodTime;
+    private final long successCount;
+    private final long failureCount;
+    private final long skipCount;
+
+    private ProducerStats(
+        LatencyHistogram latency,
+        LatencyHistogram methodTime,
+        long successCount,
+        long failureCount,
+        long skipCount) {
+      this.latency = latency;
+      this.methodTime = methodTime;
+      this.successCount = successCount;
+      this.failureCount = failureCount;
+      this.skipCount = skipCount;
+    }
+
+    /**
+     * Returns the latencies from when the producer method started until the producer succeeded or
+     * failed.
+     */
+    public LatencyHistogram latency() {
+      return latency;
+    }
+
+    /** Returns the time spent in the producer method itself. */
+    public LatencyHistogram methodTime() {
+      return methodTime;
+    }
+
+    /** Returns the number of times the producer succeeded. */
+    public long successCount() {
+      return successCount;
+    }
+
+    /** Returns the number of times the producer method ran and the producer failed. */
+    public long failureCount() {
+      return failureCount;
+    }
+
+    /** Returns the number of times the producer was skipped because one of its inputs failed. */
+    public long skipCount() {
+      return skipCount;
+    }
+
+    @Override
+    public String toString() {
+      return "ProducerStats{latency="
+          + latency
+          + ", methodTime="
+          + methodTime
+          + ", successCount="
+          + successCount
+          + ", failureCount="
+          + failureCount
+          + ", skipCount="
+          + skipCount
+          + "}";
+    }
+  }
+
+  /** The histograms and counts for one {@link ProducerToken}. */
+  private static final class ProducerHistograms {
+    final ConcurrentLatencyHistogram latency = new ConcurrentLatencyHistogram();
+    final ConcurrentLatencyHistogram methodTime = new ConcurrentLatencyHistogram();
+    final AtomicLong successCount = new AtomicLong();
+    final AtomicLong failureCount = new AtomicLong();
+    final AtomicLong skipCount = new AtomicLong();
+
+    ProducerStats snapshot() {
+      return new ProducerStats(
+          latency.snapshot(),
+          methodTime.snapshot(),
+          successCount.get(),
+          failureCount.get(),
+          skipCount.get());
+    }
+  }
+
+  /** Records one producer of one component into its {@link ProducerHistograms}. */
+  private static final class HistogramProducerMonitor extends ProducerMonitor {
+    private final ProducerHistograms histograms;
+    private final Ticker ticker;
+    private boolean started;
+    private long startNanos;
+
+    HistogramProducerMonitor(ProducerHistograms histograms, Ticker ticker) {
+      this.histograms = histograms;
+      this.ticker = ticker;
+    }
+
+    @Override
+    public void methodStarting() {
+      startNanos = ticker.read();
+      started = true;
+    }
+
+    @Override
+    public void methodFinished() {
+      histograms.methodTime.record(ticker.read() - startNanos);
+    }
+
+    @Override
+    public void succeeded(Object o) {
+      histograms.latency.record(ticker.read() - startNanos);
+      histograms.successCount.incrementAndGet();
+    }
+
+    @Override
+    public void failed(Throwable t) {
+      if (started) {
+        histograms.latency.record(ticker.read() - startNanos);
+        histograms.failureCount.incrementAndGet();
+      } else {
+        histograms.skipCount.incrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/** A component with a scoped binding that is slow to create, for testing concurrent access. */
+@Singleton
+@Component(modules = ScopedBindingConcurrencyComponent.SlowSingletonModule.class)
+interface ScopedBindingConcurrencyComponent {
+  SlowSingleton slowSingleton();
+
+  Provider<SlowSingleton> slowSingletonProvider();
+
+  final class SlowSingleton {}
+
+  @Module
+  final class SlowSingletonModule {
+    final AtomicInteger constructions = new AtomicInteger();
+
+    @Provides
+    @Singleton
+    SlowSingleton slowSingleton() {
+      constructions.incrementAndGet();
+      try {
+        // Long enough that every other thread has to wait for the instance.
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new SlowSingleton();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.Sets;
+import dagger.functional.ScopedBindingConcurrencyComponent.SlowSingleton;
+import dagger.functional.ScopedBindingConcurrencyComponent.SlowSingletonModule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that a scoped binding is created exactly once when thousands of threads request it at the
+ * same time. When the JDK supports them, the requests are made from virtual threads, which is where
+ * initializing a scoped binding must not depend on blocking in a {@code synchronized} block.
+ */
+@RunWith(JUnit4.class)
+public final class ScopedBindingConcurrencyTest {
+  private static final int REQUESTS = 5000;
+  private static final int PLATFORM_THREADS = 64;
+
+  private final SlowSingletonModule module = new SlowSingletonModule();
+  private final ScopedBindingConcurrencyComponent component =
+      DaggerScopedBindingConcurrencyComponent.builder().slowSingletonModule(module).build();
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = newExecutor();
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    executor.shutdownNow();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+  }
+
+  @Test
+  public void instanceRequests() throws Exception {
+    assertSingleInstance(hammer(() -> component.slowSingleton()));
+  }
+
+  @Test
+  public void providerRequests() throws Exception {
+    assertSingleInstance(hammer(() -> component.slowSingletonProvider().get()));
+  }
+
+  @Test
+  public void mixedRequests() throws Exception {
+    AtomicInteger requestCount = new AtomicInteger();
+    assertSingleInstance(
+        hammer(
+            () ->
+                requestCount.incrementAndGet() % 2 == 0
+                    ? component.slowSingleton()
+                    : component.slowSingletonProvider().get()));
+  }
+
+  private void assertSingleInstance(List<SlowSingleton> results) {
+    assertThat(module.constructions.get()).isEqualTo(1);
+    Set<SlowSingleton> distinct = Sets.newIdentityHashSet();
+    distinct.addAll(results);
+    assertThat(distinct).hasSize(1);
+  }
+
+  /**
+   * Calls {@code request} {@link #REQUESTS} times from the executor, releasing all of the calls at
+   * once.
+   */
+  private List<SlowSingleton> hammer(Callable<SlowSingleton> request) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<SlowSingleton>> futures = new ArrayList<>(REQUESTS);
+    for (int i = 0; i < REQUESTS; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return request.call();
+              }));
+    }
+    start.countDown();
+    List<SlowSingleton> results = new ArrayList<>(REQUESTS);
+    for (Future<SlowSingleton> future : futures) {
+      results.add(future.get(1, TimeUnit.MINUTES));
+    }
+    return results;
+  }
+
+  /**
+   * Returns an executor that starts a new virtual thread for each task, or a pool of platform
+   * threads if the JDK does not support virtual threads.
+   */
+  private static ExecutorService newExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.cycle;
+
+import dagger.Component;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * A dependency cycle that can be entered through any of its bindings, for testing that the first
+ * requests to a component from several threads at once see a fully initialized cycle.
+ *
+ * <pre>
+ * {@literal A ← B ← Provider<A>}
+ * {@literal C ← B}
+ * </pre>
+ */
+final class ConcurrentCycle {
+  private ConcurrentCycle() {}
+
+  static final class A {
+    final Provider<B> bProvider;
+
+    @Inject
+    A(Provider<B> bProvider) {
+      this.bProvider = bProvider;
+    }
+  }
+
+  @Singleton
+  static final class B {
+    final A a;
+
+    @Inject
+    B(A a) {
+      this.a = a;
+    }
+  }
+
+  static final class C {
+    final B b;
+
+    @Inject
+    C(B b) {
+      this.b = b;
+    }
+  }
+
+  @Singleton
+  @Component
+  interface ConcurrentCycleComponent {
+    A a();
+
+    B b();
+
+    C c();
+
+    Provider<A> aProvider();
+  }
+}
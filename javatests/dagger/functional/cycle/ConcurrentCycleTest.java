@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.cycle;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.functional.cycle.ConcurrentCycle.ConcurrentCycleComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that a dependency cycle is fully initialized when several threads make the first requests
+ * to a component at the same time, each entering the cycle through a different binding.
+ */
+@RunWith(JUnit4.class)
+public final class ConcurrentCycleTest {
+  private static final int COMPONENTS = 500;
+  private static final int THREADS = 8;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+  @After
+  public void tearDown() throws InterruptedException {
+    executor.shutdownNow();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+  }
+
+  @Test
+  public void firstRequestsFromManyThreads() throws Exception {
+    for (int i = 0; i < COMPONENTS; i++) {
+      ConcurrentCycleComponent component = DaggerConcurrentCycle_ConcurrentCycleComponent.create();
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<ConcurrentCycle.B>> futures = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        futures.add(executor.submit(request(component, thread, start)));
+      }
+      start.countDown();
+
+      ConcurrentCycle.B b = component.b();
+      for (Future<ConcurrentCycle.B> future : futures) {
+        assertThat(future.get()).isSameAs(b);
+      }
+    }
+  }
+
+  /**
+   * Returns a task that waits for {@code start}, enters the cycle through one of the component's
+   * entry points, and then follows the cycle around to the scoped {@link ConcurrentCycle.B}.
+   */
+  private static Callable<ConcurrentCycle.B> request(
+      ConcurrentCycleComponent component, int thread, CountDownLatch start) {
+    return () -> {
+      start.await();
+      switch (thread % 4) {
+        case 0:
+          return component.a().bProvider.get();
+        case 1:
+          return component.b().a.bProvider.get();
+        case 2:
+          return component.c().b;
+        default:
+          return component.aProvider().get().bProvider.get();
+      }
+    };
+  }
+}
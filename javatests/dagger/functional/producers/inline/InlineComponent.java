@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.producers.inline;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import dagger.functional.producers.ExecutorModule;
+import dagger.producers.ProductionComponent;
+
+/**
+ * A component with entry points for {@link dagger.producers.InlineWhenReady} producer methods,
+ * whose inputs are either done or pending when they are requested.
+ */
+@ProductionComponent(
+  dependencies = InlineComponent.Dependency.class,
+  modules = {ExecutorModule.class, InlineProducerModule.class}
+)
+interface InlineComponent {
+  /** An inline producer method with no args. */
+  ListenableFuture<String> noArgStr();
+
+  /** An inline producer method that depends on another inline producer method. */
+  ListenableFuture<Integer> singleArgInt();
+
+  /** A producer method that is not inline, and depends on an inline producer method. */
+  ListenableFuture<Long> notInline();
+
+  /** An inline producer method that depends on a component dependency method. */
+  ListenableFuture<Boolean> singleArgBool();
+
+  interface Dependency {
+    ListenableFuture<Double> doubleDep();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.producers.inline;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import dagger.functional.producers.ExecutorModule;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that {@link dagger.producers.InlineWhenReady} producer methods run without the executor
+ * when their inputs are done, by giving the component an executor that rejects everything.
+ */
+@RunWith(JUnit4.class)
+public final class InlineWhenReadyTest {
+  private final SettableFuture<Double> doubleDep = SettableFuture.create();
+  private InlineComponent component;
+
+  @Before
+  public void setUpComponent() {
+    ListeningExecutorService executorService = MoreExecutors.newDirectExecutorService();
+    component =
+        DaggerInlineComponent.builder()
+            .executorModule(new ExecutorModule(executorService))
+            .dependency(
+                new InlineComponent.Dependency() {
+                  @Override
+                  public ListenableFuture<Double> doubleDep() {
+                    return doubleDep;
+                  }
+                })
+            .build();
+    executorService.shutdown();
+  }
+
+  @Test
+  public void noArgMethod_runsInline() throws Exception {
+    assertThat(component.noArgStr().get()).isEqualTo("no arg string");
+  }
+
+  @Test
+  public void inputsDone_runsInline() throws Exception {
+    assertThat(component.singleArgInt().get()).isEqualTo(13);
+  }
+
+  @Test
+  public void notAnnotated_usesExecutor() throws Exception {
+    assertRejected(component.notInline());
+  }
+
+  @Test
+  public void inputsPending_usesExecutor() throws Exception {
+    ListenableFuture<Boolean> future = component.singleArgBool();
+    assertThat(future.isDone()).isFalse();
+    doubleDep.set(42.0);
+    assertRejected(future);
+  }
+
+  private static void assertRejected(ListenableFuture<?> future) throws Exception {
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+    }
+  }
+}
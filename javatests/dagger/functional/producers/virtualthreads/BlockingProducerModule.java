@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.producers.virtualthreads;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import dagger.multibindings.IntoSet;
+import dagger.producers.ProducerModule;
+import dagger.producers.Produces;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Producers that each block until all of them have started, so that they only finish if they run
+ * concurrently.
+ */
+@ProducerModule
+final class BlockingProducerModule {
+  static final int PRODUCERS = 4;
+
+  /** How long a producer waits for the others to start before it gives up. */
+  static final long TIMEOUT_SECONDS = 30;
+
+  private final CountDownLatch allStarted = new CountDownLatch(PRODUCERS);
+
+  @Produces
+  @IntoSet
+  String first() throws InterruptedException {
+    return awaitAllStarted();
+  }
+
+  @Produces
+  @IntoSet
+  String second() throws InterruptedException {
+    return awaitAllStarted();
+  }
+
+  @Produces
+  @IntoSet
+  String third() throws InterruptedException {
+    return awaitAllStarted();
+  }
+
+  @Produces
+  @IntoSet
+  String fourth() throws InterruptedException {
+    return awaitAllStarted();
+  }
+
+  /** Blocks until every producer has started, and returns the name of the current thread. */
+  private String awaitAllStarted() throws InterruptedException {
+    allStarted.countDown();
+    if (!allStarted.await(TIMEOUT_SECONDS, SECONDS)) {
+      throw new IllegalStateException(
+          allStarted.getCount() + " producers never started while the others were blocked");
+    }
+    return Thread.currentThread().getName();
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.producers.virtualthreads;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import dagger.producers.ProductionComponent;
+import dagger.producers.VirtualThreadProductionModule;
+import java.util.Set;
+
+/** A component whose producers run on {@link VirtualThreadProductionModule}'s virtual threads. */
+@ProductionComponent(modules = {VirtualThreadProductionModule.class, BlockingProducerModule.class})
+interface VirtualThreadComponent {
+  /** The names of the threads that each of {@link BlockingProducerModule}'s producers ran on. */
+  ListenableFuture<Set<String>> threadNames();
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.producers.virtualthreads;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that a {@link dagger.producers.ProductionComponent} that includes {@link
+ * dagger.producers.VirtualThreadProductionModule} runs its producers concurrently, each on its own
+ * virtual thread.
+ */
+@RunWith(JUnit4.class)
+public final class VirtualThreadComponentTest {
+  @Test
+  public void producersBlockConcurrently() throws Exception {
+    assumeTrue(virtualThreadsSupported());
+    VirtualThreadComponent component = DaggerVirtualThreadComponent.create();
+
+    Set<String> threadNames =
+        component.threadNames().get(2 * BlockingProducerModule.TIMEOUT_SECONDS, SECONDS);
+
+    assertThat(threadNames).hasSize(BlockingProducerModule.PRODUCERS);
+    for (String threadName : threadNames) {
+      assertThat(threadName).startsWith("dagger-production-");
+    }
+  }
+
+  /** Returns true if this runtime supports virtual threads, which requires Java 21. */
+  private static boolean virtualThreadsSupported() {
+    try {
+      Thread.class.getMethod("ofVirtual").invoke(null);
+      return true;
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+}
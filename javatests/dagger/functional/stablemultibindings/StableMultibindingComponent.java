@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.stablemultibindings;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntoMap;
+import dagger.multibindings.IntoSet;
+import dagger.multibindings.StringKey;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * A component whose {@code Set<Object>} and {@code Map<String, Object>} multibindings have only
+ * scoped contributions, and whose {@code @Named("unscoped") Set<Object>} multibinding does not.
+ */
+@Singleton
+@Component(modules = StableMultibindingComponent.StableModule.class)
+interface StableMultibindingComponent {
+  Set<Object> set();
+
+  Provider<Set<Object>> setProvider();
+
+  Map<String, Object> map();
+
+  @Named("unscoped")
+  Set<Object> unscopedSet();
+
+  @Module
+  abstract class StableModule {
+    @Provides
+    @IntoSet
+    @Singleton
+    static Object first() {
+      return new Object();
+    }
+
+    @Provides
+    @IntoSet
+    @Singleton
+    static Object second() {
+      return new Object();
+    }
+
+    @Provides
+    @IntoMap
+    @StringKey("first")
+    @Singleton
+    static Object firstValue() {
+      return new Object();
+    }
+
+    @Provides
+    @IntoSet
+    @Named("unscoped")
+    static Object unscoped() {
+      return new Object();
+    }
+  }
+}
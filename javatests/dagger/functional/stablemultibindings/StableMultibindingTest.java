@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional.stablemultibindings;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assume.assumeFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class StableMultibindingTest {
+  private final StableMultibindingComponent component =
+      DaggerStableMultibindingComponent.create();
+
+  @Test
+  public void setWithOnlyScopedContributions_isMemoized() {
+    assumeMemoized();
+    assertThat(component.set()).hasSize(2);
+    assertThat(component.set()).isSameAs(component.set());
+    assertThat(component.setProvider().get()).isSameAs(component.set());
+  }
+
+  @Test
+  public void mapWithOnlyScopedContributions_isMemoized() {
+    assumeMemoized();
+    assertThat(component.map()).hasSize(1);
+    assertThat(component.map()).isSameAs(component.map());
+  }
+
+  @Test
+  public void setWithUnscopedContribution_isNotMemoized() {
+    assertThat(component.unscopedSet()).isNotEqualTo(component.unscopedSet());
+  }
+
+  /** Ahead-of-time subcomponents do not memoize multibindings. */
+  private static void assumeMemoized() {
+    String mode = System.getProperty("dagger.mode", "");
+    assumeFalse(mode.contains("AheadOfTimeSubcomponents"));
+  }
+}
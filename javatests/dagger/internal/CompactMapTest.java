@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CompactMapTest {
+  private enum Color {
+    RED,
+    GREEN,
+    BLUE,
+    BLACK
+  }
+
+  private enum Shape {
+    CIRCLE
+  }
+
+  @Test
+  public void copyOf_equalToSource() {
+    Map<Object, Integer> source = new LinkedHashMap<>();
+    for (int i = 0; i < 100; i++) {
+      source.put(i % 2 == 0 ? "key" + i : Integer.valueOf(i), i);
+    }
+    Map<Object, Integer> map = CompactMap.copyOf(source);
+
+    assertThat(map).isEqualTo(source);
+    assertThat(map.hashCode()).isEqualTo(source.hashCode());
+    assertThat(map.entrySet()).containsExactlyElementsIn(source.entrySet()).inOrder();
+    for (Map.Entry<Object, Integer> entry : source.entrySet()) {
+      assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+    }
+    assertThat(map.get("key1")).isNull();
+    assertThat(map.containsKey(null)).isFalse();
+  }
+
+  @Test
+  public void enumKeys_keepInsertionOrder() {
+    Map<Color, String> map =
+        CompactMap.copyOf(ImmutableMap.of(Color.BLUE, "blue", Color.RED, "red"));
+
+    assertThat(map.keySet()).containsExactly(Color.BLUE, Color.RED).inOrder();
+    assertThat(map.get(Color.RED)).isEqualTo("red");
+    assertThat(map.get(Color.GREEN)).isNull();
+    assertThat(map.get(Color.BLACK)).isNull();
+    assertThat(map.get(Shape.CIRCLE)).isNull();
+    assertThat(map.get("RED")).isNull();
+  }
+
+  @Test
+  public void mixedEnumKeys() {
+    Map<Enum<?>, Integer> source = new LinkedHashMap<>();
+    source.put(Color.RED, 1);
+    source.put(Shape.CIRCLE, 2);
+    Map<Enum<?>, Integer> map = CompactMap.copyOf(source);
+
+    assertThat(map).containsExactlyEntriesIn(source).inOrder();
+    assertThat(map.get(Shape.CIRCLE)).isEqualTo(2);
+  }
+
+  @Test
+  public void nullKey() {
+    Map<String, Integer> source = new LinkedHashMap<>();
+    source.put(null, 1);
+    try {
+      CompactMap.copyOf(source);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  @Test
+  public void immutable() {
+    Map<String, Integer> map = CompactMap.copyOf(ImmutableMap.of("one", 1));
+    try {
+      map.put("two", 2);
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+    try {
+      map.entrySet().iterator().next().setValue(2);
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+    try {
+      map.clear();
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+    assertThat(map).containsExactly("one", 1);
+  }
+
+  @Test
+  public void views() {
+    Map<String, Integer> map = CompactMap.copyOf(ImmutableMap.of("one", 1, "two", 2, "three", 3));
+
+    assertThat(map.keySet()).containsExactly("one", "two", "three").inOrder();
+    assertThat(map.keySet().contains("two")).isTrue();
+    assertThat(map.keySet().contains("four")).isFalse();
+    assertThat(map.values()).containsExactly(1, 2, 3).inOrder();
+    assertThat(map.values().contains(3)).isTrue();
+    assertThat(map.values().contains(4)).isFalse();
+    try {
+      map.keySet().iterator().remove();
+      fail();
+    } catch (UnsupportedOperationException expected) {
+    }
+  }
+
+  @Test
+  public void equalsAndHashCode() {
+    Map<String, Integer> source = new LinkedHashMap<>();
+    source.put("one", 1);
+    source.put("null", null);
+    Map<String, Integer> map = CompactMap.copyOf(source);
+
+    assertThat(map.equals(source)).isTrue();
+    assertThat(source.equals(map)).isTrue();
+    assertThat(map.hashCode()).isEqualTo(source.hashCode());
+    assertThat(map.equals(ImmutableMap.of("one", 1, "other", 2))).isFalse();
+    assertThat(map.equals(ImmutableMap.of("one", 1))).isFalse();
+  }
+
+  @Test
+  public void serializable() throws Exception {
+    Map<String, Integer> map = CompactMap.copyOf(ImmutableMap.of("one", 1, "two", 2));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    Object copy;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = in.readObject();
+    }
+
+    assertThat(copy).isEqualTo(map);
+    assertThat(((Map<?, ?>) copy).keySet()).containsExactly("one", "two").inOrder();
+  }
+}
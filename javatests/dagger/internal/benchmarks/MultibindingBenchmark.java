@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.InstanceFactory;
+import dagger.internal.MapFactory;
+import dagger.internal.MapProviderFactory;
+import dagger.internal.SetBuilder;
+import dagger.internal.SetFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the factories and builders that generated components use to implement {@code Set}
+ * and {@code Map} multibindings.
+ *
+ * <p>Every contribution is an {@link InstanceFactory}, so the numbers reflect only the cost of the
+ * multibinding machinery itself and not of the contributing bindings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class MultibindingBenchmark {
+  @Param({"2", "10", "30"})
+  public int contributions;
+
+  private Object[] values;
+  private Provider<Set<Object>> setFactory;
+  private Provider<Map<Integer, Object>> mapFactory;
+  private Provider<Map<Integer, Provider<Object>>> mapProviderFactory;
+
+  @Setup
+  public void setUp() {
+    values = new Object[contributions];
+    SetFactory.Builder<Object> setFactoryBuilder = SetFactory.builder(contributions, 0);
+    MapFactory.Builder<Integer, Object> mapFactoryBuilder = MapFactory.builder(contributions);
+    MapProviderFactory.Builder<Integer, Object> mapProviderFactoryBuilder =
+        MapProviderFactory.builder(contributions);
+    for (int i = 0; i < contributions; i++) {
+      values[i] = new Object();
+      Provider<Object> provider = InstanceFactory.create(values[i]);
+      setFactoryBuilder.addProvider(provider);
+      mapFactoryBuilder.put(i, provider);
+      mapProviderFactoryBuilder.put(i, provider);
+    }
+    setFactory = setFactoryBuilder.build();
+    mapFactory = mapFactoryBuilder.build();
+    mapProviderFactory = mapProviderFactoryBuilder.build();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Set<Object> setFactory() {
+    return setFactory.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Set<Object> setFactory_contended() {
+    return setFactory.get();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Map<Integer, Object> mapFactory() {
+    return mapFactory.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Map<Integer, Object> mapFactory_contended() {
+    return mapFactory.get();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Map<Integer, Provider<Object>> mapProviderFactory() {
+    return mapProviderFactory.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Map<Integer, Provider<Object>> mapProviderFactory_contended() {
+    return mapProviderFactory.get();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Set<Object> setBuilder() {
+    return buildSet();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Set<Object> setBuilder_contended() {
+    return buildSet();
+  }
+
+  /** Builds a set the way inlined multibinding requests do in generated components. */
+  private Set<Object> buildSet() {
+    SetBuilder<Object> builder = SetBuilder.newSetBuilder(values.length);
+    for (Object value : values) {
+      builder.add(value);
+    }
+    return builder.build();
+  }
+}
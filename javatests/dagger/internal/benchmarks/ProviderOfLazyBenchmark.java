@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.Lazy;
+import dagger.internal.ProviderOfLazy;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link ProviderOfLazy}, which backs {@code Provider<Lazy<T>>} requests. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ProviderOfLazyBenchmark {
+  private final Provider<Lazy<Object>> providerOfLazy = ProviderOfLazy.create(Object::new);
+
+  /** Measures only the creation of a new {@link Lazy}. */
+  @Benchmark
+  @Threads(1)
+  public Lazy<Object> get() {
+    return providerOfLazy.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Lazy<Object> get_contended() {
+    return providerOfLazy.get();
+  }
+
+  /** Measures the creation of a new {@link Lazy} followed by its first {@link Lazy#get()}. */
+  @Benchmark
+  @Threads(1)
+  public Object getThenGet() {
+    return providerOfLazy.get().get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object getThenGet_contended() {
+    return providerOfLazy.get().get();
+  }
+}
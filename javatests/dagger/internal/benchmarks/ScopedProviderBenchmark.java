@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.DoubleCheck;
+import dagger.internal.LockFreeDoubleCheck;
+import dagger.internal.SingleCheck;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the scoped providers that generated components wrap around {@code @Singleton} and
+ * other scoped bindings.
+ *
+ * <p>The {@code warm} benchmarks measure the steady state, where the instance has already been
+ * created and every call should be a single read. The {@code cold} benchmarks measure the first
+ * call to a freshly created provider, which is where the implementations differ the most when many
+ * threads race to initialize the same binding.
+ */
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScopedProviderBenchmark {
+  /** The scoped provider implementations under comparison. */
+  public enum Implementation {
+    DOUBLE_CHECK {
+      @Override
+      Provider<Object> wrap(Provider<Object> delegate) {
+        return DoubleCheck.provider(delegate);
+      }
+    },
+    LOCK_FREE_DOUBLE_CHECK {
+      @Override
+      Provider<Object> wrap(Provider<Object> delegate) {
+        return LockFreeDoubleCheck.provider(delegate);
+      }
+    },
+    SINGLE_CHECK {
+      @Override
+      Provider<Object> wrap(Provider<Object> delegate) {
+        return SingleCheck.provider(delegate);
+      }
+    },
+    ;
+
+    abstract Provider<Object> wrap(Provider<Object> delegate);
+  }
+
+  private static final Provider<Object> OBJECT_PROVIDER = Object::new;
+
+  /** A single scoped provider, initialized once and then shared by all benchmark threads. */
+  @State(Scope.Benchmark)
+  public static class WarmProvider {
+    @Param public Implementation implementation;
+
+    Provider<Object> provider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      provider = implementation.wrap(OBJECT_PROVIDER);
+      provider.get();
+    }
+  }
+
+  /**
+   * A scoped provider that is recreated before every measurement, so that each benchmark thread's
+   * single call races with every other thread to initialize it.
+   */
+  @State(Scope.Benchmark)
+  public static class ColdProvider {
+    @Param public Implementation implementation;
+
+    Provider<Object> provider;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      provider = implementation.wrap(OBJECT_PROVIDER);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(1)
+  public Object warm(WarmProvider state) {
+    return state.provider.get();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(Threads.MAX)
+  public Object warm_contended(WarmProvider state) {
+    return state.provider.get();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 1000, batchSize = 1)
+  @Measurement(iterations = 1000, batchSize = 1)
+  @Threads(1)
+  public Object cold(ColdProvider state) {
+    return state.provider.get();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 1000, batchSize = 1)
+  @Measurement(iterations = 1000, batchSize = 1)
+  @Threads(Threads.MAX)
+  public Object cold_contended(ColdProvider state) {
+    return state.provider.get();
+  }
+}
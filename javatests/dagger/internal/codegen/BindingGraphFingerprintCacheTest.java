@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
+import static javax.tools.StandardLocation.SOURCE_OUTPUT;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.File;
+import java.nio.file.Files;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@code -Adagger.bindingGraphFingerprintCache}.
+ *
+ * <p>These tests compile with javac's standard file manager, since the cache is only kept when the
+ * generated sources directory is on the file system. Whether Dagger's validation ran is read from
+ * the {@code -Adagger.statisticsFile} report, which times each validation plugin that runs.
+ */
+@RunWith(JUnit4.class)
+public final class BindingGraphFingerprintCacheTest {
+  private static final JavaFileObject NULLABLE =
+      JavaFileObjects.forSourceLines(
+          "test.Nullable", //
+          "package test;",
+          "",
+          "@interface Nullable {}");
+
+  private static final JavaFileObject INJECT_TYPES =
+      JavaFileObjects.forSourceLines(
+          "test.Dependencies",
+          "package test;",
+          "",
+          "import javax.inject.Inject;",
+          "",
+          "final class Dependencies {",
+          "  static final class Foo {",
+          "    @Inject Foo() {}",
+          "  }",
+          "",
+          "  static final class Bar {",
+          "    @Inject Bar() {}",
+          "  }",
+          "}");
+
+  private static final JavaFileObject COMPONENT =
+      JavaFileObjects.forSourceLines(
+          "test.TestComponent",
+          "package test;",
+          "",
+          "import dagger.Component;",
+          "import javax.inject.Singleton;",
+          "",
+          "@Singleton",
+          "@Component(modules = TestModule.class)",
+          "interface TestComponent {",
+          "  @Nullable String string();",
+          "}");
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File generatedSources;
+  private File classes;
+  private File statisticsFile;
+
+  @Before
+  public void setUp() throws Exception {
+    generatedSources = temporaryFolder.newFolder("generated");
+    classes = temporaryFolder.newFolder("classes");
+    statisticsFile = new File(temporaryFolder.getRoot(), "statistics.json");
+  }
+
+  @Test
+  public void unchangedGraph_skipsValidation() throws Exception {
+    JavaFileObject module = module("@Provides static String string(Dependencies.Foo foo)");
+
+    assertThat(compile(cacheOptions(), module)).isEmpty();
+    assertThat(validated()).isTrue();
+
+    assertThat(compile(cacheOptions(), module)).isEmpty();
+    assertThat(validated()).isFalse();
+  }
+
+  @Test
+  public void changedProvidesMethodSignature_revalidates() throws Exception {
+    assertRevalidatedAfterChange(
+        module("@Provides static String string(Dependencies.Foo foo)"),
+        module("@Provides static String string(Dependencies.Bar bar)"));
+  }
+
+  @Test
+  public void changedProvidesMethodScope_revalidates() throws Exception {
+    assertRevalidatedAfterChange(
+        module("@Provides static String string(Dependencies.Foo foo)"),
+        module("@Provides @Singleton static String string(Dependencies.Foo foo)"));
+  }
+
+  @Test
+  public void changedProvidesMethodNullability_revalidates() throws Exception {
+    assertRevalidatedAfterChange(
+        module("@Provides static String string(Dependencies.Foo foo)"),
+        module("@Provides @Nullable static String string(Dependencies.Foo foo)"));
+  }
+
+  @Test
+  public void changedSubcomponentModuleConstructor_revalidates() throws Exception {
+    JavaFileObject parent =
+        JavaFileObjects.forSourceLines(
+            "test.ParentComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface ParentComponent {",
+            "  Child child();",
+            "}");
+    JavaFileObject child =
+        JavaFileObjects.forSourceLines(
+            "test.Child",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "",
+            "@Subcomponent(modules = ChildModule.class)",
+            "interface Child {",
+            "  String string();",
+            "}");
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    assertThat(compile(cacheOptions(), diagnostics, parent, child, childModule(""))).isTrue();
+    assertThat(validated()).isTrue();
+
+    diagnostics = new DiagnosticCollector<>();
+    assertThat(
+            compile(
+                cacheOptions(),
+                diagnostics,
+                parent,
+                child,
+                childModule("ChildModule(String s) {}")))
+        .isFalse();
+    assertThat(validated()).isTrue();
+    ImmutableList<String> errors =
+        diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind().equals(Diagnostic.Kind.ERROR))
+            .map(diagnostic -> diagnostic.getMessage(null))
+            .collect(toImmutableList());
+    assertThat(errors).hasSize(1);
+    assertThat(errors.get(0))
+        .contains(
+            "test.Child requires modules which have no visible default constructors. "
+                + "Add the following modules as parameters to this method: test.ChildModule");
+  }
+
+  @Test
+  public void warnings_notCached() throws Exception {
+    JavaFileObject module = module("@Provides @Nullable static Object object()");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Object object();",
+            "}");
+    ImmutableList<String> options =
+        ImmutableList.<String>builder()
+            .addAll(cacheOptions())
+            .add("-Adagger.nullableValidation=WARNING")
+            .build();
+
+    assertThat(compile(options, module, component)).isNotEmpty();
+    assertThat(validated()).isTrue();
+
+    assertThat(compile(options, module, component)).isNotEmpty();
+    assertThat(validated()).isTrue();
+  }
+
+  @Test
+  public void withoutGradleIncrementalProcessing_ignored() throws Exception {
+    JavaFileObject module = module("@Provides static String string(Dependencies.Foo foo)");
+    ImmutableList<String> options =
+        ImmutableList.of("-Adagger.bindingGraphFingerprintCache=enabled");
+
+    assertThat(compile(options, module)).isEmpty();
+    assertThat(validated()).isTrue();
+
+    assertThat(compile(options, module)).isEmpty();
+    assertThat(validated()).isTrue();
+    assertThat(new File(generatedSources, "dagger-binding-graph-fingerprints").exists()).isFalse();
+  }
+
+  private void assertRevalidatedAfterChange(JavaFileObject before, JavaFileObject after)
+      throws Exception {
+    assertThat(compile(cacheOptions(), before)).isEmpty();
+    assertThat(validated()).isTrue();
+
+    assertThat(compile(cacheOptions(), after)).isEmpty();
+    assertThat(validated()).isTrue();
+  }
+
+  private static JavaFileObject module(String providesMethod) {
+    return JavaFileObjects.forSourceLines(
+        "test.TestModule",
+        "package test;",
+        "",
+        "import dagger.Module;",
+        "import dagger.Provides;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Module",
+        "final class TestModule {",
+        "  " + providesMethod + " {",
+        "    return \"\";",
+        "  }",
+        "}");
+  }
+
+  private static JavaFileObject childModule(String constructor) {
+    return JavaFileObjects.forSourceLines(
+        "test.ChildModule",
+        "package test;",
+        "",
+        "import dagger.Module;",
+        "import dagger.Provides;",
+        "",
+        "@Module",
+        "final class ChildModule {",
+        "  " + constructor,
+        "",
+        "  @Provides String string() {",
+        "    return \"\";",
+        "  }",
+        "}");
+  }
+
+  private static ImmutableList<String> cacheOptions() {
+    return ImmutableList.of(
+        "-Adagger.gradle.incremental", "-Adagger.bindingGraphFingerprintCache=enabled");
+  }
+
+  /** Compiles {@code module} with {@link #COMPONENT} and returns the warnings. */
+  private ImmutableList<Diagnostic<? extends JavaFileObject>> compile(
+      ImmutableList<String> options, JavaFileObject module) throws Exception {
+    return compile(options, module, COMPONENT);
+  }
+
+  /**
+   * Compiles {@code module} and {@code component}, which must succeed, and returns the warnings.
+   */
+  private ImmutableList<Diagnostic<? extends JavaFileObject>> compile(
+      ImmutableList<String> options, JavaFileObject module, JavaFileObject component)
+      throws Exception {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    assertThat(compile(options, diagnostics, NULLABLE, INJECT_TYPES, module, component)).isTrue();
+    return diagnostics.getDiagnostics().stream()
+        .filter(diagnostic -> diagnostic.getKind().equals(Diagnostic.Kind.WARNING))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Compiles {@code sources}, reporting to {@code diagnostics}, and returns whether the compilation
+   * succeeded.
+   */
+  private boolean compile(
+      ImmutableList<String> options,
+      DiagnosticCollector<JavaFileObject> diagnostics,
+      JavaFileObject... sources)
+      throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, null, UTF_8)) {
+      fileManager.setLocation(SOURCE_OUTPUT, ImmutableList.of(generatedSources));
+      fileManager.setLocation(CLASS_OUTPUT, ImmutableList.of(classes));
+      CompilationTask task =
+          compiler.getTask(
+              null,
+              fileManager,
+              diagnostics,
+              ImmutableList.<String>builder()
+                  .add("-classpath", System.getProperty("java.class.path"))
+                  .add("-Adagger.statisticsFile=" + statisticsFile.getPath())
+                  .addAll(options)
+                  .build(),
+              null,
+              ImmutableList.copyOf(sources));
+      task.setProcessors(ImmutableList.of(new ComponentProcessor()));
+      return task.call();
+    }
+  }
+
+  /** Returns {@code true} if Dagger's validation plugins ran in the last compilation. */
+  private boolean validated() throws Exception {
+    String report = new String(Files.readAllBytes(statisticsFile.toPath()), UTF_8);
+    return report.contains("{\"phase\": \"bindingGraphPlugin\", \"name\": \"Dagger/");
+  }
+}
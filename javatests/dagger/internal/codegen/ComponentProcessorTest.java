@@ -396,6 +396,88 @@ public class ComponentProcessorTest {
         .containsElementsIn(generatedComponent);
   }
 
+  @Test
+  public void componentWithScope_lockFreeScopedProviders() {
+    JavaFileObject injectableTypeFile =
+        JavaFileObjects.forSourceLines(
+            "test.SomeInjectableType",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class SomeInjectableType {",
+            "  @Inject SomeInjectableType() {}",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.SimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface SimpleComponent {",
+            "  SomeInjectableType someInjectableType();",
+            "  Provider<SomeInjectableType> someInjectableTypeProvider();",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerSimpleComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerSimpleComponent implements SimpleComponent {")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  private Provider<SomeInjectableType> someInjectableTypeProvider;",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize() {",
+                "    this.someInjectableTypeProvider =",
+                "        LockFreeDoubleCheck.provider(SomeInjectableType_Factory.create());",
+                "  }")
+            .addLinesIn(
+                FAST_INIT_MODE,
+                "  private volatile Object someInjectableType = new MemoizedLock();",
+                "",
+                "  @Override",
+                "  public SomeInjectableType someInjectableType() {",
+                "    Object local = someInjectableType;",
+                "    if (local instanceof MemoizedLock) {",
+                "      MemoizedLock lock = (MemoizedLock) local;",
+                "      lock.lock();",
+                "      try {",
+                "        local = someInjectableType;",
+                "        if (local instanceof MemoizedLock) {",
+                "          local = new SomeInjectableType();",
+                "          someInjectableType =",
+                "              MemoizedLock.reentrantCheck(someInjectableType, local);",
+                "        }",
+                "      } finally {",
+                "        lock.unlock();",
+                "      }",
+                "    }",
+                "    return (SomeInjectableType) local;",
+                "  }")
+            .addLines("}")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode.javacopts().append("-Adagger.lockFreeScopedProviders=enabled"))
+            .compile(injectableTypeFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
   @Test public void simpleComponentWithNesting() {
     JavaFileObject nestedTypesFile = JavaFileObjects.forSourceLines("test.OuterType",
         "package test;",
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static dagger.internal.codegen.DaggerGraphs.shortestPathLengths;
+import static dagger.internal.codegen.DaggerGraphs.stronglyConnectedComponents;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link DaggerGraphs}. */
+@RunWith(JUnit4.class)
+public final class DaggerGraphsTest {
+  @Test
+  public void shortestPathLengths_forwardAndBackward() {
+    MutableGraph<String> graph = GraphBuilder.directed().build();
+    graph.putEdge("a", "b");
+    graph.putEdge("b", "c");
+    graph.putEdge("a", "c");
+    graph.putEdge("c", "d");
+    graph.putEdge("e", "a");
+
+    assertThat(shortestPathLengths(graph, "a"))
+        .containsExactly("a", 0, "b", 1, "c", 1, "d", 2);
+    assertThat(shortestPathLengths(graph::predecessors, "d"))
+        .containsExactly("d", 0, "c", 1, "b", 2, "a", 2, "e", 3);
+  }
+
+  @Test
+  public void stronglyConnectedComponents_acyclic() {
+    MutableGraph<String> graph = GraphBuilder.directed().build();
+    graph.putEdge("a", "b");
+    graph.putEdge("b", "c");
+    graph.putEdge("a", "c");
+
+    assertThat(stronglyConnectedComponents(graph))
+        .containsExactly(ImmutableSet.of("c"), ImmutableSet.of("b"), ImmutableSet.of("a"))
+        .inOrder();
+  }
+
+  @Test
+  public void stronglyConnectedComponents_cycles() {
+    MutableGraph<String> graph = GraphBuilder.directed().allowsSelfLoops(true).build();
+    graph.putEdge("a", "b");
+    graph.putEdge("b", "c");
+    graph.putEdge("c", "a");
+    graph.putEdge("c", "d");
+    graph.putEdge("d", "e");
+    graph.putEdge("e", "d");
+    graph.putEdge("f", "f");
+
+    assertThat(stronglyConnectedComponents(graph))
+        .containsExactly(
+            ImmutableSet.of("d", "e"), ImmutableSet.of("a", "b", "c"), ImmutableSet.of("f"))
+        .inOrder();
+  }
+
+  @Test
+  public void stronglyConnectedComponents_longCycle() {
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    int length = 100_000;
+    for (int i = 0; i < length; i++) {
+      graph.putEdge(i, (i + 1) % length);
+    }
+
+    assertThat(stronglyConnectedComponents(graph)).containsExactly(graph.nodes());
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.File;
+import java.nio.file.Files;
+import javax.tools.JavaFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for the report written by {@link DaggerStatistics}. */
+@RunWith(JUnit4.class)
+public final class DaggerStatisticsTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void statisticsFile() throws Exception {
+    JavaFileObject injectType =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  Foo foo();",
+            "}");
+    File statisticsFile = new File(temporaryFolder.getRoot(), "statistics.json");
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new ComponentProcessor())
+            .withOptions("-Adagger.statisticsFile=" + statisticsFile.getPath())
+            .compile(injectType, component);
+    assertThat(compilation).succeededWithoutWarnings();
+
+    String report = new String(Files.readAllBytes(statisticsFile.toPath()), UTF_8);
+    assertThat(report).contains("\"totalRuntimeMillis\": ");
+    assertThat(report)
+        .contains("{\"phase\": \"processingStep\", \"name\": \"ComponentProcessingStep\", ");
+    assertThat(report)
+        .contains(
+            "{\"phase\": \"bindingGraphFactory\", \"name\": \"test.TestComponent\", \"runs\": 1");
+    assertThat(report)
+        .contains("{\"phase\": \"bindingGraphPlugin\", \"name\": \"Dagger/DependencyCycle\", ");
+    assertThat(report)
+        .contains("{\"phase\": \"sourceFileGenerator\", \"name\": \"ComponentGenerator\", ");
+    assertThat(report).containsMatch("\"resolvedKeys\": [1-9]");
+    assertThat(report).containsMatch("\"generatedClasses\": [1-9]");
+    assertThat(report).containsMatch("\"bytesWritten\": [1-9]");
+  }
+
+  @Test
+  public void statisticsFile_needsValue() {
+    Compilation compilation =
+        javac()
+            .withProcessors(new ComponentProcessor())
+            .withOptions("-Adagger.statisticsFile")
+            .compile(
+                JavaFileObjects.forSourceLines(
+                    "test.Foo", "package test;", "", "final class Foo {}"));
+    assertThat(compilation).hadErrorContaining("-Adagger.statisticsFile needs a value");
+  }
+}
@@ -30,6 +30,8 @@ import dagger.multibindings.ElementsIntoSet;
 import dagger.multibindings.IntoSet;
 import dagger.producers.ProducerModule;
 import dagger.producers.Produces;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Qualifier;
@@ -228,6 +230,41 @@ public class KeyFactoryTest {
     assertThat(integerKey.toString()).isEqualTo("java.lang.Integer");
   }
 
+  @Test public void equalKeysAreInterned() {
+    TypeElement primitiveHolder = elements.getTypeElement(PrimitiveTypes.class.getCanonicalName());
+    ExecutableElement intMethod =
+        Iterables.getOnlyElement(ElementFilter.methodsIn(primitiveHolder.getEnclosedElements()));
+    TypeElement boxedPrimitiveHolder =
+        elements.getTypeElement(BoxedPrimitiveTypes.class.getCanonicalName());
+    ExecutableElement integerMethod = Iterables.getOnlyElement(
+        ElementFilter.methodsIn(boxedPrimitiveHolder.getEnclosedElements()));
+
+    Key intKey = keyFactory.forProvidesMethod(intMethod, primitiveHolder);
+    assertThat(keyFactory.forProvidesMethod(integerMethod, boxedPrimitiveHolder))
+        .isSameAs(intKey);
+
+    keyFactory.clearCache();
+    Key integerKey = keyFactory.forProvidesMethod(integerMethod, boxedPrimitiveHolder);
+    assertThat(integerKey).isEqualTo(intKey);
+    assertThat(integerKey).isNotSameAs(intKey);
+  }
+
+  @Test public void unwrapMultibindingKey_interned() {
+    TypeElement moduleElement =
+        elements.getTypeElement(SetProvidesMethodsModule.class.getCanonicalName());
+    List<Key> multibindingKeys = new ArrayList<>();
+    for (ExecutableElement providesMethod
+        : ElementFilter.methodsIn(moduleElement.getEnclosedElements())) {
+      Key key = keyFactory.forProvidesMethod(providesMethod, moduleElement);
+      Key multibindingKey = keyFactory.unwrapMultibindingKey(key);
+      assertThat(multibindingKey.multibindingContributionIdentifier().isPresent()).isFalse();
+      assertThat(multibindingKey.type().toString()).isEqualTo("java.util.Set<java.lang.String>");
+      multibindingKeys.add(multibindingKey);
+    }
+    assertThat(multibindingKeys).hasSize(2);
+    assertThat(multibindingKeys.get(1)).isSameAs(multibindingKeys.get(0));
+  }
+
   @Test public void forProducesMethod() {
     TypeMirror stringType = elements.getTypeElement(String.class.getCanonicalName()).asType();
     TypeElement moduleElement =
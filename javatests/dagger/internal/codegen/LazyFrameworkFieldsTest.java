@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LazyFrameworkFieldsTest {
+  @Test
+  public void scopedProvider() {
+    JavaFileObject dep =
+        JavaFileObjects.forSourceLines(
+            "test.Dep",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Dep {",
+            "  @Inject Dep() {}",
+            "}");
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Foo {",
+            "  @Inject Foo(Provider<Dep> dep) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Provider<Foo> foo();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerTestComponent implements TestComponent {",
+            "  private final Object lazyFieldLock = new Object();",
+            "  private volatile int lazyFieldInitializationDepth;",
+            "  private volatile Provider<Foo> fooProvider;",
+            "",
+            "  private Provider<Foo> getFooProvider() {",
+            "    Provider<Foo> local = fooProvider;",
+            "    if (local == null || lazyFieldInitializationDepth != 0) {",
+            "      synchronized (lazyFieldLock) {",
+            "        local = fooProvider;",
+            "        if (local == null) {",
+            "          lazyFieldInitializationDepth++;",
+            "          try {",
+            "            local = DoubleCheck.provider(Foo_Factory.create(Dep_Factory.create()));",
+            "            if (fooProvider == null) {",
+            "              fooProvider = local;",
+            "            } else {",
+            "              local = fooProvider;",
+            "            }",
+            "          } finally {",
+            "            lazyFieldInitializationDepth--;",
+            "          }",
+            "        }",
+            "      }",
+            "    }",
+            "    return local;",
+            "  }",
+            "",
+            "  @Override",
+            "  public Provider<Foo> foo() {",
+            "    return getFooProvider();",
+            "  }",
+            "}");
+    Compilation compilation = lazyFrameworkFieldsCompiler().compile(dep, foo, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void dependencyCycle() {
+    JavaFileObject a =
+        JavaFileObjects.forSourceLines(
+            "test.A",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "final class A {",
+            "  @Inject A(Provider<B> b) {}",
+            "}");
+    JavaFileObject b =
+        JavaFileObjects.forSourceLines(
+            "test.B",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class B {",
+            "  @Inject B(A a) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  A a();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerTestComponent implements TestComponent {",
+            "  private final Object lazyFieldLock = new Object();",
+            "  private volatile int lazyFieldInitializationDepth;",
+            "  private volatile Provider<B> bProvider;",
+            "  private volatile Provider<A> aProvider;",
+            "",
+            "  private Provider<A> getAProvider() {",
+            "    Provider<A> local = aProvider;",
+            "    if (local == null || lazyFieldInitializationDepth != 0) {",
+            "      synchronized (lazyFieldLock) {",
+            "        local = aProvider;",
+            "        if (local == null) {",
+            "          lazyFieldInitializationDepth++;",
+            "          try {",
+            "            local = A_Factory.create(getBProvider());",
+            "            if (aProvider == null) {",
+            "              aProvider = local;",
+            "            } else {",
+            "              local = aProvider;",
+            "            }",
+            "          } finally {",
+            "            lazyFieldInitializationDepth--;",
+            "          }",
+            "        }",
+            "      }",
+            "    }",
+            "    return local;",
+            "  }",
+            "",
+            "  private Provider<B> getBProvider() {",
+            "    Provider<B> local = bProvider;",
+            "    if (local == null || lazyFieldInitializationDepth != 0) {",
+            "      synchronized (lazyFieldLock) {",
+            "        local = bProvider;",
+            "        if (local == null) {",
+            "          lazyFieldInitializationDepth++;",
+            "          try {",
+            "            bProvider =",
+            "                new Provider<B>() {",
+            "                  @Override",
+            "                  public B get() {",
+            "                    return getBProvider().get();",
+            "                  }",
+            "                };",
+            "            local = B_Factory.create(getAProvider());",
+            "            bProvider = local;",
+            "          } catch (Throwable t) {",
+            "            bProvider = null;",
+            "            throw t;",
+            "          } finally {",
+            "            lazyFieldInitializationDepth--;",
+            "          }",
+            "        }",
+            "      }",
+            "    }",
+            "    return local;",
+            "  }",
+            "}");
+    Compilation compilation = lazyFrameworkFieldsCompiler().compile(a, b, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  private static Compiler lazyFrameworkFieldsCompiler() {
+    return daggerCompiler().withOptions("-Adagger.lazyFrameworkFields=enabled");
+  }
+}
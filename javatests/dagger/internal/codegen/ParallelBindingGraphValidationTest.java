@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@code -Adagger.parallelBindingGraphValidation}. */
+@RunWith(JUnit4.class)
+public final class ParallelBindingGraphValidationTest {
+  private static final JavaFileObject COMPONENT =
+      JavaFileObjects.forSourceLines(
+          "test.TestComponent",
+          "package test;",
+          "",
+          "import dagger.Component;",
+          "import dagger.Module;",
+          "import dagger.Provides;",
+          "import javax.inject.Inject;",
+          "",
+          "@Component(modules = TestComponent.TestModule.class)",
+          "interface TestComponent {",
+          "  A a();",
+          "  B b();",
+          "  C c();",
+          "  E e();",
+          "",
+          "  class A {",
+          "    @Inject A(B b) {}",
+          "  }",
+          "",
+          "  class B {",
+          "    @Inject B(A a) {}",
+          "  }",
+          "",
+          "  interface C {}",
+          "",
+          "  interface D {}",
+          "",
+          "  class E {",
+          "    @Inject E(F f) {}",
+          "  }",
+          "",
+          "  interface F {}",
+          "",
+          "  @interface Nullable {}",
+          "",
+          "  @Module",
+          "  class TestModule {",
+          "    @Provides static C c1(D d) { return null; }",
+          "    @Provides static C c2() { return null; }",
+          "    @Provides @Nullable static F f() { return null; }",
+          "  }",
+          "}");
+
+  @Test
+  public void sameDiagnosticsInSameOrder() {
+    Compilation serial = daggerCompiler().compile(COMPONENT);
+    Compilation parallel =
+        daggerCompiler()
+            .withOptions("-Adagger.parallelBindingGraphValidation=enabled")
+            .compile(COMPONENT);
+
+    assertThat(serial).failed();
+    assertThat(serial).hadErrorContaining("[Dagger/DependencyCycle]");
+    assertThat(serial).hadErrorContaining("[Dagger/DuplicateBindings]");
+    assertThat(serial).hadErrorContaining("[Dagger/Nullable]");
+    assertThat(parallel).failed();
+    assertThat(messages(parallel)).containsExactlyElementsIn(messages(serial)).inOrder();
+  }
+
+  private static ImmutableList<String> messages(Compilation compilation) {
+    return compilation.diagnostics().stream()
+        .map(diagnostic -> diagnostic.getKind() + ": " + diagnostic.getMessage(null))
+        .collect(toImmutableList());
+  }
+}
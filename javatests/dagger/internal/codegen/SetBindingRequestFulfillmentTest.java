@@ -17,6 +17,8 @@
 package dagger.internal.codegen;
 
 import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.CompilerMode.DEFAULT_MODE;
+import static dagger.internal.codegen.CompilerMode.FAST_INIT_MODE;
 import static dagger.internal.codegen.Compilers.CLASS_PATH_WITHOUT_GUAVA_OPTION;
 import static dagger.internal.codegen.Compilers.daggerCompiler;
 import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
@@ -315,6 +317,186 @@ public class SetBindingRequestFulfillmentTest {
         .hasSourceEquivalentTo(generatedComponent);
   }
 
+  @Test
+  public void providerRequest() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.SetModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.multibindings.IntoSet;",
+            "",
+            "@Module",
+            "final class SetModule {",
+            "  @Provides @IntoSet static String first() { return \"first\"; }",
+            "  @Provides @IntoSet static String second() { return \"second\"; }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Set;",
+            "import javax.inject.Provider;",
+            "",
+            "@Component(modules = SetModule.class)",
+            "interface TestComponent {",
+            "  Provider<Set<String>> strings();",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerTestComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  private Provider<Set<String>> setOfStringProvider;",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize() {",
+                "    this.setOfStringProvider =",
+                "        SetFactory.<String>builder(2, 0)",
+                "            .addProvider(SetModule_FirstFactory.create())",
+                "            .addProvider(SetModule_SecondFactory.create())",
+                "            .build();",
+                "  }",
+                "",
+                "  @Override",
+                "  public Provider<Set<String>> strings() {",
+                "    return setOfStringProvider;",
+                "  }")
+            .addLinesIn(
+                FAST_INIT_MODE,
+                "  private volatile Provider<Set<String>> setOfStringProvider;",
+                "",
+                "  private Set<String> getSetOfString() {",
+                "    return SetBuilder.<String>newSetBuilder(2)",
+                "        .add(SetModule_FirstFactory.proxyFirst())",
+                "        .add(SetModule_SecondFactory.proxySecond())",
+                "        .build();",
+                "  }",
+                "",
+                "  @Override",
+                "  public Provider<Set<String>> strings() {",
+                "    Object local = setOfStringProvider;",
+                "    if (local == null) {",
+                "      local = new SwitchingProvider<>(0);",
+                "      setOfStringProvider = (Provider<Set<String>>) local;",
+                "    }",
+                "    return (Provider<Set<String>>) local;",
+                "  }",
+                "",
+                "  private final class SwitchingProvider<T> implements Provider<T> {",
+                "    private final int id;",
+                "",
+                "    SwitchingProvider(int id) {",
+                "      this.id = id;",
+                "    }",
+                "",
+                "    @SuppressWarnings(\"unchecked\")",
+                "    @Override",
+                "    public T get() {",
+                "      switch (id) {",
+                "        case 0: return (T) DaggerTestComponent.this.getSetOfString();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "  }")
+            .addLines("}")
+            .build();
+    Compilation compilation = daggerCompilerWithoutGuava().compile(module, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void memoizeStableMultibindings() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.multibindings.IntoSet;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Module",
+            "final class TestModule {",
+            "  @Provides @IntoSet @Singleton static String first() { return \"first\"; }",
+            "  @Provides @IntoSet @Singleton static String second() { return \"second\"; }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Set;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Set<String> strings();",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerTestComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  private Provider<Set<String>> setOfStringProvider;",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize() {",
+                "    this.firstProvider =",
+                "        DoubleCheck.provider(TestModule_FirstFactory.create());",
+                "    this.secondProvider =",
+                "        DoubleCheck.provider(TestModule_SecondFactory.create());",
+                "    this.setOfStringProvider =",
+                "        SingleCheck.provider(",
+                "            SetFactory.<String>builder(2, 0)",
+                "                .addProvider(firstProvider)",
+                "                .addProvider(secondProvider)",
+                "                .build());",
+                "  }",
+                "",
+                "  @Override",
+                "  public Set<String> strings() {",
+                "    return setOfStringProvider.get();",
+                "  }")
+            .addLinesIn(
+                FAST_INIT_MODE,
+                "  private volatile Set<String> setOfString;")
+            .addLines("}")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode
+                    .javacopts()
+                    .append(CLASS_PATH_WITHOUT_GUAVA_OPTION)
+                    .append("-Adagger.memoizeStableMultibindings=enabled"))
+            .compile(module, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
   private Compiler daggerCompilerWithoutGuava() {
     return daggerCompiler()
         .withOptions(compilerMode.javacopts().append(CLASS_PATH_WITHOUT_GUAVA_OPTION));
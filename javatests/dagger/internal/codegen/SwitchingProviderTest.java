@@ -592,9 +592,244 @@ public class SwitchingProviderTest {
                 "}"));
   }
 
-  private Compiler compilerWithAndroidMode() {
+  @Test
+  public void maxCasesPerSwitch() {
+    Compilation compilation =
+        compilerWithAndroidMode("-Adagger.maxCasesPerSwitch=2")
+            .compile(threeBindingsComponent());
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private final class SwitchingProvider<T> implements Provider<T> {",
+                "    @SuppressWarnings(\"unchecked\")",
+                "    private T get0() {",
+                "      switch (id) {",
+                "        case 0:  return (T) new Binding0();",
+                "        case 1:  return (T) new Binding1();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "",
+                "    @SuppressWarnings(\"unchecked\")",
+                "    private T get1() {",
+                "      switch (id) {",
+                "        case 2:  return (T) new Binding2();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "",
+                "    @Override",
+                "    public T get() {",
+                "      switch (id / 2) {",
+                "        case 0:  return get0();",
+                "        case 1:  return get1();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  public void frequencyPartitioning() {
+    Compilation compilation =
+        compilerWithAndroidMode(
+                "-Adagger.maxCasesPerSwitch=2", "-Adagger.switchingProviderPartitioning=frequency")
+            .compile(threeBindingsComponent());
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private final class SwitchingProvider<T> implements Provider<T> {",
+                "    @SuppressWarnings(\"unchecked\")",
+                "    private T get0() {",
+                "      switch (id) {",
+                "        case 1:  return (T) new Binding1();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "",
+                "    @Override",
+                "    @SuppressWarnings(\"unchecked\")",
+                "    public T get() {",
+                "      switch (id) {",
+                "        case 0: return (T) new Binding0();",
+                "        case 2: return (T) new Binding2();",
+                "      }",
+                "      switch (id / 2) {",
+                "        case 0: return get0();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  public void bytecodeSizePartitioning() {
+    Compilation compilation =
+        compilerWithAndroidMode(
+                "-Adagger.maxCasesPerSwitch=4",
+                "-Adagger.switchingProviderPartitioning=bytecode_size")
+            .compile(largeBindingsComponent());
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private final class SwitchingProvider<T> implements Provider<T> {",
+                "    private T get0() {",
+                "      switch ((id - 0) / 2) {",
+                "        case 0: return get1();",
+                "        case 1: return get2();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "",
+                "    @SuppressWarnings(\"unchecked\")",
+                "    private T get3() {",
+                "      switch (id) {",
+                "        case 4: return (T) new Small();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "",
+                "    @Override",
+                "    public T get() {",
+                "      switch (id / 4) {",
+                "        case 0: return get0();",
+                "        case 1: return get3();",
+                "        default: throw new AssertionError(id);",
+                "      }",
+                "    }",
+                "  }",
+                "}"));
+  }
+
+  /**
+   * Returns sources for a component with three {@code @Inject} bindings, where {@code Binding2} is
+   * requested twice.
+   */
+  private static ImmutableList<JavaFileObject> threeBindingsComponent() {
+    ImmutableList.Builder<JavaFileObject> javaFileObjects = ImmutableList.builder();
+    for (int i = 0; i < 3; i++) {
+      String bindingName = "Binding" + i;
+      javaFileObjects.add(
+          JavaFileObjects.forSourceLines(
+              "test." + bindingName,
+              "package test;",
+              "",
+              "import javax.inject.Inject;",
+              "",
+              "final class " + bindingName + " {",
+              "  @Inject",
+              "  " + bindingName + "() {}",
+              "}"));
+    }
+    javaFileObjects.add(
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import dagger.Lazy;",
+            "import javax.inject.Provider;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  Provider<Binding0> binding0Provider();",
+            "  Provider<Binding1> binding1Provider();",
+            "  Provider<Binding2> binding2Provider();",
+            "  Lazy<Binding2> lazyBinding2();",
+            "}"));
+    return javaFileObjects.build();
+  }
+
+  /**
+   * Returns sources for a component with four {@code @Inject} bindings, {@code Large0} through
+   * {@code Large3}, each of whose cases is estimated at over 2000 bytes, followed by a small
+   * binding. With {@code -Adagger.maxCasesPerSwitch=4}, the large cases fit in one block of ids but
+   * not in one switch, so that block has to be split.
+   */
+  private static ImmutableList<JavaFileObject> largeBindingsComponent() {
+    ImmutableList.Builder<JavaFileObject> javaFileObjects = ImmutableList.builder();
+    javaFileObjects.add(
+        JavaFileObjects.forSourceLines(
+            "test.Dependency",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Dependency {",
+            "  @Inject Dependency() {}",
+            "}"),
+        JavaFileObjects.forSourceLines(
+            "test.Small",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Small {",
+            "  @Inject Small() {}",
+            "}"));
+    StringBuilder parameters = new StringBuilder();
+    for (int i = 0; i < 250; i++) {
+      parameters.append(i == 0 ? "" : ", ").append("Dependency d").append(i);
+    }
+    for (int i = 0; i < 4; i++) {
+      String bindingName = "Large" + i;
+      javaFileObjects.add(
+          JavaFileObjects.forSourceLines(
+              "test." + bindingName,
+              "package test;",
+              "",
+              "import javax.inject.Inject;",
+              "",
+              "final class " + bindingName + " {",
+              "  @Inject",
+              "  " + bindingName + "(" + parameters + ") {}",
+              "}"));
+    }
+    javaFileObjects.add(
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Provider;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  Provider<Large0> large0Provider();",
+            "  Provider<Large1> large1Provider();",
+            "  Provider<Large2> large2Provider();",
+            "  Provider<Large3> large3Provider();",
+            "  Provider<Small> smallProvider();",
+            "}"));
+    return javaFileObjects.build();
+  }
+
+  private Compiler compilerWithAndroidMode(String... options) {
     return javac()
         .withProcessors(new ComponentProcessor())
-        .withOptions(CompilerMode.FAST_INIT_MODE.javacopts());
+        .withOptions(CompilerMode.FAST_INIT_MODE.javacopts().append(options));
   }
 }
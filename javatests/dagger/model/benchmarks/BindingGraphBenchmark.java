@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.model.benchmarks;
+
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.ImmutableNetwork;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import com.sun.source.util.JavacTask;
+import dagger.model.Binding;
+import dagger.model.BindingGraph;
+import dagger.model.BindingGraph.ComponentNode;
+import dagger.model.BindingGraph.DependencyEdge;
+import dagger.model.BindingGraph.Edge;
+import dagger.model.BindingGraph.Node;
+import dagger.model.BindingGraphProxies;
+import dagger.model.BindingKind;
+import dagger.model.ComponentPath;
+import dagger.model.DependencyRequest;
+import dagger.model.Key;
+import dagger.model.RequestKind;
+import dagger.model.Scope;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.ToolProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the lookups on {@link BindingGraph} that validators and {@code
+ * BindingGraphPlugin}s make for many keys and requests.
+ *
+ * <p>Each benchmark makes one lookup for every binding in a generated graph, starting from a new
+ * {@link BindingGraph} so that the cost of building its indexes is included. The {@code *_scan}
+ * benchmarks do the same lookups by filtering every node or edge, as {@link BindingGraph} used to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class BindingGraphBenchmark {
+  @Param({"1000", "10000"})
+  public int bindings;
+
+  private ImmutableNetwork<Node, Edge> network;
+  private ImmutableList<Key> keys;
+  private ImmutableList<DependencyRequest> requests;
+
+  @Setup
+  public void setUp() {
+    JavacTask javac =
+        (JavacTask)
+            ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, null, ImmutableList.of(), null, ImmutableList.of());
+    Elements elements = javac.getElements();
+    Types types = javac.getTypes();
+
+    // Map<A, B> for every pair of public types in java.util gives more than 10,000 distinct keys.
+    ImmutableList<TypeMirror> typeArguments =
+        elements.getPackageElement("java.util").getEnclosedElements().stream()
+            .filter(element -> element.getModifiers().contains(Modifier.PUBLIC))
+            .map(element -> types.erasure(element.asType()))
+            .collect(toImmutableList());
+    TypeElement map = elements.getTypeElement("java.util.Map");
+    ImmutableList.Builder<Key> keys = ImmutableList.builder();
+    for (int i = 0; i < bindings; i++) {
+      TypeMirror first = typeArguments.get(i / typeArguments.size());
+      TypeMirror second = typeArguments.get(i % typeArguments.size());
+      keys.add(Key.builder(types.getDeclaredType(map, first, second)).build());
+    }
+    this.keys = keys.build();
+
+    ComponentPath componentPath =
+        ComponentPath.create(ImmutableList.of(elements.getTypeElement("java.lang.Object")));
+    MutableNetwork<Node, Edge> network =
+        NetworkBuilder.directed().allowsParallelEdges(true).build();
+    List<FakeBinding> bindingNodes = new ArrayList<>();
+    ImmutableList.Builder<DependencyRequest> requests = ImmutableList.builder();
+    for (Key key : this.keys) {
+      FakeBinding binding = new FakeBinding(componentPath, key);
+      bindingNodes.add(binding);
+      network.addNode(binding);
+      requests.add(DependencyRequest.builder().kind(RequestKind.INSTANCE).key(key).build());
+    }
+    this.requests = requests.build();
+
+    // Each binding depends on the next two bindings, and the component has an entry point for
+    // every hundredth binding.
+    ComponentNode component = new FakeComponentNode(componentPath);
+    network.addNode(component);
+    for (int i = 0; i < bindings; i++) {
+      for (int dependency = i + 1; dependency <= i + 2 && dependency < bindings; dependency++) {
+        network.addEdge(
+            bindingNodes.get(i),
+            bindingNodes.get(dependency),
+            new FakeDependencyEdge(this.requests.get(dependency), false));
+      }
+      if (i % 100 == 0) {
+        network.addEdge(
+            component, bindingNodes.get(i), new FakeDependencyEdge(this.requests.get(i), true));
+      }
+    }
+    this.network = ImmutableNetwork.copyOf(network);
+  }
+
+  private BindingGraph newBindingGraph() {
+    return BindingGraphProxies.bindingGraph(network, false);
+  }
+
+  @Benchmark
+  public int bindingsForEveryKey() {
+    BindingGraph graph = newBindingGraph();
+    int found = 0;
+    for (Key key : keys) {
+      found += graph.bindings(key).size();
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int bindingsForEveryKey_scan() {
+    BindingGraph graph = newBindingGraph();
+    int found = 0;
+    for (Key key : keys) {
+      found +=
+          (int)
+              graph.network().nodes().stream()
+                  .filter(node -> node instanceof Binding && ((Binding) node).key().equals(key))
+                  .count();
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int dependencyEdgesForEveryRequest() {
+    BindingGraph graph = newBindingGraph();
+    int found = 0;
+    for (DependencyRequest request : requests) {
+      found += graph.dependencyEdges(request).size();
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int dependencyEdgesForEveryRequest_scan() {
+    BindingGraph graph = newBindingGraph();
+    int found = 0;
+    for (DependencyRequest request : requests) {
+      found +=
+          (int)
+              graph.network().edges().stream()
+                  .filter(
+                      edge ->
+                          edge instanceof DependencyEdge
+                              && ((DependencyEdge) edge).dependencyRequest().equals(request))
+                  .count();
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int rootComponentNodeForEveryBinding() {
+    BindingGraph graph = newBindingGraph();
+    int found = 0;
+    for (int i = 0; i < bindings; i++) {
+      found += graph.rootComponentNode().componentPath().components().size();
+    }
+    return found;
+  }
+
+  @Benchmark
+  public int rootComponentNodeForEveryBinding_scan() {
+    BindingGraph graph = newBindingGraph();
+    int found = 0;
+    for (int i = 0; i < bindings; i++) {
+      found +=
+          graph.network().nodes().stream()
+              .filter(node -> node instanceof ComponentNode && node.componentPath().atRoot())
+              .map(ComponentNode.class::cast)
+              .findFirst()
+              .get()
+              .componentPath()
+              .components()
+              .size();
+    }
+    return found;
+  }
+
+  private static final class FakeBinding implements Binding {
+    private final ComponentPath componentPath;
+    private final Key key;
+
+    FakeBinding(ComponentPath componentPath, Key key) {
+      this.componentPath = componentPath;
+      this.key = key;
+    }
+
+    @Override
+    public ComponentPath componentPath() {
+      return componentPath;
+    }
+
+    @Override
+    public Key key() {
+      return key;
+    }
+
+    @Override
+    public ImmutableSet<DependencyRequest> dependencies() {
+      return ImmutableSet.of();
+    }
+
+    @Override
+    public Optional<Element> bindingElement() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<TypeElement> contributingModule() {
+      return Optional.empty();
+    }
+
+    @Override
+    public boolean requiresModuleInstance() {
+      return false;
+    }
+
+    @Override
+    public Optional<Scope> scope() {
+      return Optional.empty();
+    }
+
+    @Override
+    public boolean isNullable() {
+      return false;
+    }
+
+    @Override
+    public boolean isProduction() {
+      return false;
+    }
+
+    @Override
+    public BindingKind kind() {
+      return BindingKind.INJECTION;
+    }
+  }
+
+  private static final class FakeComponentNode implements ComponentNode {
+    private final ComponentPath componentPath;
+
+    FakeComponentNode(ComponentPath componentPath) {
+      this.componentPath = componentPath;
+    }
+
+    @Override
+    public ComponentPath componentPath() {
+      return componentPath;
+    }
+
+    @Override
+    public boolean isSubcomponent() {
+      return false;
+    }
+
+    @Override
+    public ImmutableSet<DependencyRequest> entryPoints() {
+      return ImmutableSet.of();
+    }
+
+    @Override
+    public ImmutableSet<Scope> scopes() {
+      return ImmutableSet.of();
+    }
+  }
+
+  private static final class FakeDependencyEdge implements DependencyEdge {
+    private final DependencyRequest dependencyRequest;
+    private final boolean isEntryPoint;
+
+    FakeDependencyEdge(DependencyRequest dependencyRequest, boolean isEntryPoint) {
+      this.dependencyRequest = dependencyRequest;
+      this.isEntryPoint = isEntryPoint;
+    }
+
+    @Override
+    public DependencyRequest dependencyRequest() {
+      return dependencyRequest;
+    }
+
+    @Override
+    public boolean isEntryPoint() {
+      return isEntryPoint;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.model.benchmarks;
+
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.sun.source.util.JavacTask;
+import dagger.model.Key;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.ToolProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the cost of looking up {@link Key}s in hash maps, as the binding graph factory does
+ * when it resolves a graph.
+ *
+ * <p>Each benchmark builds a key for every type in a synthetic graph from a new {@link TypeMirror}
+ * for that type, and looks it up in several maps that were populated with keys for equal types.
+ * {@link #interned()} first interns the key in a map of canonical keys, as the processor's {@code
+ * KeyFactory} does, so the lookups end at the identity check in {@link Key#equals(Object)}. {@link
+ * #uninterned()} looks up the new key itself, so that every successful lookup compares the types
+ * with {@link com.google.auto.common.MoreTypes#equivalence()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class KeyInterningBenchmark {
+  @Param({"20000"})
+  public int keys;
+
+  /** How many maps each key is looked up in. */
+  @Param({"1", "4"})
+  public int maps;
+
+  private ImmutableList<TypeMirror> lookupTypes;
+  private final Map<Key, Key> canonicalKeys = new HashMap<>();
+  private ImmutableList<Map<Key, Integer>> internedMaps;
+  private ImmutableList<Map<Key, Integer>> uninternedMaps;
+
+  @Setup
+  public void setUp() {
+    JavacTask javac =
+        (JavacTask)
+            ToolProvider.getSystemJavaCompiler()
+                .getTask(null, null, null, ImmutableList.of(), null, ImmutableList.of());
+    Elements elements = javac.getElements();
+    Types types = javac.getTypes();
+
+    ImmutableList<TypeMirror> typeArguments =
+        elements.getPackageElement("java.util").getEnclosedElements().stream()
+            .filter(element -> element.getModifiers().contains(Modifier.PUBLIC))
+            .map(element -> types.erasure(element.asType()))
+            .collect(toImmutableList());
+    ImmutableList<TypeElement> genericTypes =
+        ImmutableList.of(
+            elements.getTypeElement("java.util.Map"),
+            elements.getTypeElement("java.util.Map.Entry"),
+            elements.getTypeElement("java.util.AbstractMap.SimpleEntry"));
+
+    // Two separately created, but equal, types for each key: one to populate the maps and one to
+    // look the key up, as when a dependency request's type is resolved against a binding's type.
+    ImmutableList<TypeMirror> indexedTypes = createTypes(types, genericTypes, typeArguments);
+    this.lookupTypes = createTypes(types, genericTypes, typeArguments);
+
+    ImmutableList.Builder<Map<Key, Integer>> internedMaps = ImmutableList.builder();
+    ImmutableList.Builder<Map<Key, Integer>> uninternedMaps = ImmutableList.builder();
+    for (int map = 0; map < maps; map++) {
+      Map<Key, Integer> internedMap = new HashMap<>();
+      Map<Key, Integer> uninternedMap = new HashMap<>();
+      for (int i = 0; i < keys; i++) {
+        internedMap.put(intern(Key.builder(indexedTypes.get(i)).build()), i);
+        uninternedMap.put(Key.builder(indexedTypes.get(i)).build(), i);
+      }
+      internedMaps.add(internedMap);
+      uninternedMaps.add(uninternedMap);
+    }
+    this.internedMaps = internedMaps.build();
+    this.uninternedMaps = uninternedMaps.build();
+  }
+
+  private Key intern(Key key) {
+    Key interned = canonicalKeys.putIfAbsent(key, key);
+    return interned == null ? key : interned;
+  }
+
+  private ImmutableList<TypeMirror> createTypes(
+      Types types, List<TypeElement> genericTypes, List<TypeMirror> typeArguments) {
+    ImmutableList.Builder<TypeMirror> created = ImmutableList.builder();
+    int pairs = typeArguments.size() * typeArguments.size();
+    if (keys > genericTypes.size() * pairs) {
+      throw new IllegalArgumentException("Can't create " + keys + " distinct keys");
+    }
+    for (int i = 0; i < keys; i++) {
+      int pair = i % pairs;
+      created.add(
+          types.getDeclaredType(
+              genericTypes.get(i / pairs),
+              typeArguments.get(pair / typeArguments.size()),
+              typeArguments.get(pair % typeArguments.size())));
+    }
+    return created.build();
+  }
+
+  @Benchmark
+  public long interned() {
+    long sum = 0;
+    for (TypeMirror type : lookupTypes) {
+      Key key = intern(Key.builder(type).build());
+      for (Map<Key, Integer> map : internedMaps) {
+        sum += map.get(key);
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long uninterned() {
+    long sum = 0;
+    for (TypeMirror type : lookupTypes) {
+      Key key = Key.builder(type).build();
+      for (Map<Key, Integer> map : uninternedMaps) {
+        sum += map.get(key);
+      }
+    }
+    return sum;
+  }
+}
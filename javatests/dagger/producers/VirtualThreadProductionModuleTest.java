@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import dagger.producers.internal.AbstractProducesMethodProducer;
+import dagger.producers.monitoring.ProducerMonitor;
+import dagger.producers.monitoring.ProducerToken;
+import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * A load test for {@link VirtualThreadProductionModule}: thousands of producers must all be blocked
+ * at the same time, which no reasonably sized thread pool would allow.
+ */
+@RunWith(JUnit4.class)
+public final class VirtualThreadProductionModuleTest {
+  /** How long a producer waits for all of the others to start before it gives up. */
+  private static final long TIMEOUT_SECONDS = 60;
+
+  private final CountingMonitor monitor = new CountingMonitor();
+
+  @Before
+  public void assumeVirtualThreads() {
+    assumeTrue(VirtualThreadProductionModule.isSupported());
+  }
+
+  @Test
+  public void blockingProducers_allBlockConcurrently() throws Exception {
+    for (int producers : new int[] {1_000, 4_000, 10_000}) {
+      List<String> threadNames = runBlockingProducers(producers);
+
+      assertThat(new HashSet<>(threadNames)).hasSize(producers);
+      for (String threadName : threadNames) {
+        assertThat(threadName).startsWith("dagger-production-");
+      }
+    }
+  }
+
+  @Test
+  public void blockingProducers_monitored() throws Exception {
+    int producers = 2_000;
+    runBlockingProducers(producers);
+
+    assertThat(monitor.requested.get()).isEqualTo(producers);
+    assertThat(monitor.ready.get()).isEqualTo(producers);
+    assertThat(monitor.methodStarting.get()).isEqualTo(producers);
+    assertThat(monitor.methodFinished.get()).isEqualTo(producers);
+    assertThat(monitor.succeeded.get()).isEqualTo(producers);
+    assertThat(monitor.failed.get()).isEqualTo(0);
+  }
+
+  /**
+   * Runs {@code count} producers, each of which blocks until all of them have started, and returns
+   * the names of the threads they ran on. Fails if they don't all start.
+   */
+  private List<String> runBlockingProducers(int count) throws Exception {
+    Executor executor = VirtualThreadProductionModule.virtualThreadExecutor();
+    CountDownLatch allStarted = new CountDownLatch(count);
+    List<ListenableFuture<String>> futures = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      futures.add(new BlockingProducer(executor, monitor, allStarted).get());
+    }
+    return Futures.allAsList(futures).get(2 * TIMEOUT_SECONDS, SECONDS);
+  }
+
+  /**
+   * A producer whose method blocks until every producer sharing its latch has started, and then
+   * produces the name of the thread it ran on.
+   */
+  private static final class BlockingProducer extends AbstractProducesMethodProducer<Void, String> {
+    private final CountDownLatch allStarted;
+
+    BlockingProducer(
+        final Executor executor,
+        final ProductionComponentMonitor monitor,
+        CountDownLatch allStarted) {
+      super(
+          new Provider<ProductionComponentMonitor>() {
+            @Override
+            public ProductionComponentMonitor get() {
+              return monitor;
+            }
+          },
+          null, // token
+          new Provider<Executor>() {
+            @Override
+            public Executor get() {
+              return executor;
+            }
+          });
+      this.allStarted = allStarted;
+    }
+
+    @Override
+    protected ListenableFuture<Void> collectDependencies() {
+      return Futures.immediateFuture(null);
+    }
+
+    @Override
+    protected ListenableFuture<String> callProducesMethod(Void asyncDependencies)
+        throws InterruptedException {
+      allStarted.countDown();
+      if (!allStarted.await(TIMEOUT_SECONDS, SECONDS)) {
+        throw new IllegalStateException(
+            allStarted.getCount() + " producers never started while the others were blocked");
+      }
+      return Futures.immediateFuture(Thread.currentThread().getName());
+    }
+  }
+
+  /** A monitor that counts the calls to all of its producers' monitors. */
+  private static final class CountingMonitor extends ProductionComponentMonitor {
+    final AtomicInteger requested = new AtomicInteger();
+    final AtomicInteger ready = new AtomicInteger();
+    final AtomicInteger methodStarting = new AtomicInteger();
+    final AtomicInteger methodFinished = new AtomicInteger();
+    final AtomicInteger succeeded = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+
+    @Override
+    public ProducerMonitor producerMonitorFor(ProducerToken token) {
+      return new ProducerMonitor() {
+        @Override
+        public void requested() {
+          requested.incrementAndGet();
+        }
+
+        @Override
+        public void ready() {
+          ready.incrementAndGet();
+        }
+
+        @Override
+        public void methodStarting() {
+          methodStarting.incrementAndGet();
+        }
+
+        @Override
+        public void methodFinished() {
+          methodFinished.incrementAndGet();
+        }
+
+        @Override
+        public void succeeded(Object value) {
+          succeeded.incrementAndGet();
+        }
+
+        @Override
+        public void failed(Throwable t) {
+          failed.incrementAndGet();
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.benchmarks;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import dagger.producers.Producer;
+import dagger.producers.internal.AbstractProducesMethodProducer;
+import dagger.producers.internal.CancellationListener;
+import dagger.producers.internal.Producers;
+import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for building and running a production component's graph of producers, as a server
+ * would for each request.
+ *
+ * <p>The graph is wired the way a generated component wires it: each node is an {@link
+ * AbstractProducesMethodProducer} that depends on {@linkplain
+ * Producers#nonCancellationPropagatingViewOf dependency views} of two nodes in the layer below it,
+ * and the top node is exposed through an {@linkplain Producers#entryPointViewOf entry point view}.
+ * Producer methods run on the direct executor and do no work of their own, so the numbers reflect
+ * only the cost of the producers runtime.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ProductionGraphBenchmark {
+  private static final int LAYER_WIDTH = 20;
+
+  @Param({"100", "800"})
+  public int nodes;
+
+  private final Provider<ProductionComponentMonitor> monitorProvider =
+      new Provider<ProductionComponentMonitor>() {
+        @Override
+        public ProductionComponentMonitor get() {
+          return ProductionComponentMonitor.noOp();
+        }
+      };
+
+  private final Provider<Executor> executorProvider =
+      new Provider<Executor>() {
+        @Override
+        public Executor get() {
+          return MoreExecutors.directExecutor();
+        }
+      };
+
+  private final CancellationListener component =
+      new CancellationListener() {
+        @Override
+        public void onProducerFutureCancelled(boolean mayInterruptIfRunning) {}
+      };
+
+  /** Only builds the graph, as a component's constructor does. */
+  @Benchmark
+  public Producer<Object> construct() {
+    return buildGraph();
+  }
+
+  /** Builds the graph and produces the value of its entry point. */
+  @Benchmark
+  public Object constructAndResolve() throws Exception {
+    return buildGraph().get().get();
+  }
+
+  private Producer<Object> buildGraph() {
+    Node[] layer = new Node[LAYER_WIDTH];
+    for (int i = 0; i < LAYER_WIDTH; i++) {
+      layer[i] = new Node(monitorProvider, executorProvider, null, null);
+    }
+    for (int built = LAYER_WIDTH; built < nodes; built += LAYER_WIDTH) {
+      Node[] nextLayer = new Node[LAYER_WIDTH];
+      for (int i = 0; i < LAYER_WIDTH; i++) {
+        nextLayer[i] =
+            new Node(
+                monitorProvider, executorProvider, layer[i], layer[(i + 1) % LAYER_WIDTH]);
+      }
+      layer = nextLayer;
+    }
+    return Producers.entryPointViewOf(layer[0], component);
+  }
+
+  /** A producer like one generated for a {@code @Produces} method with up to two dependencies. */
+  private static final class Node extends AbstractProducesMethodProducer<List<Object>, Object> {
+    private final Producer<Object> left;
+    private final Producer<Object> right;
+
+    Node(
+        Provider<ProductionComponentMonitor> monitorProvider,
+        Provider<Executor> executorProvider,
+        Producer<Object> left,
+        Producer<Object> right) {
+      super(monitorProvider, null, executorProvider);
+      this.left = left == null ? null : Producers.nonCancellationPropagatingViewOf(left);
+      this.right = right == null ? null : Producers.nonCancellationPropagatingViewOf(right);
+    }
+
+    @Override
+    protected ListenableFuture<List<Object>> collectDependencies() {
+      if (left == null) {
+        return Futures.<List<Object>>immediateFuture(Collections.emptyList());
+      }
+      return Futures.<Object>allAsList(left.get(), right.get());
+    }
+
+    @Override
+    protected ListenableFuture<Object> callProducesMethod(List<Object> asyncDependencies) {
+      return Futures.<Object>immediateFuture(asyncDependencies);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import static org.junit.Assert.fail;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import dagger.producers.Producer;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -57,6 +58,64 @@ public class AbstractProducerTest {
     assertThat(producer.get().get()).isEqualTo(0);
   }
 
+  @Test
+  public void cancel_beforeGet_doesNotCompute() throws Exception {
+    AbstractProducer<Integer> producer =
+        new AbstractProducer<Integer>() {
+          @Override
+          public ListenableFuture<Integer> compute() {
+            throw new AssertionError("compute() called after cancel()");
+          }
+        };
+    producer.cancel(false);
+    assertThat(producer.get().isCancelled()).isTrue();
+  }
+
+  @Test
+  public void cancel_afterGet() throws Exception {
+    SettableFuture<Integer> delegate = SettableFuture.create();
+    AbstractProducer<Integer> producer = new DelegateProducer<>(delegate);
+    ListenableFuture<Integer> future = producer.get();
+    producer.cancel(true);
+    assertThat(future.isCancelled()).isTrue();
+    assertThat(delegate.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void dependencyView_sharedAndCannotCancelProducer() throws Exception {
+    SettableFuture<Integer> delegate = SettableFuture.create();
+    AbstractProducer<Integer> producer = new DelegateProducer<>(delegate);
+    Producer<Integer> view = producer.newDependencyView();
+    assertThat(producer.newDependencyView()).isSameAs(view);
+
+    ListenableFuture<Integer> viewFuture = view.get();
+    assertThat(viewFuture.cancel(true)).isFalse();
+    delegate.set(42);
+    assertThat(producer.get().get()).isEqualTo(42);
+    assertThat(viewFuture.get()).isEqualTo(42);
+  }
+
+  @Test
+  public void entryPointView_cancelledWithoutCancellingProducer() throws Exception {
+    SettableFuture<Integer> delegate = SettableFuture.create();
+    AbstractProducer<Integer> producer = new DelegateProducer<>(delegate);
+    final boolean[] cancelledWithInterrupt = new boolean[1];
+    Producer<Integer> entryPoint =
+        producer.newEntryPointView(
+            new CancellationListener() {
+              @Override
+              public void onProducerFutureCancelled(boolean mayInterruptIfRunning) {
+                cancelledWithInterrupt[0] = mayInterruptIfRunning;
+              }
+            });
+
+    assertThat(entryPoint.get().cancel(true)).isTrue();
+    assertThat(cancelledWithInterrupt[0]).isTrue();
+    assertThat(producer.get().isCancelled()).isFalse();
+    delegate.set(42);
+    assertThat(producer.get().get()).isEqualTo(42);
+  }
+
   static final class DelegateProducer<T> extends AbstractProducer<T> {
     private final ListenableFuture<T> delegate;
 
@@ -19,6 +19,7 @@ package dagger.producers.internal;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -38,6 +39,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -116,6 +118,118 @@ public class AbstractProducesMethodProducerTest {
     new DelegateProducer<>(null, Futures.immediateFuture(42));
   }
 
+  @Test
+  public void inlineWhenReady_dependenciesDone() throws Exception {
+    RecordingExecutor executor = new RecordingExecutor();
+    Producer<String> producer =
+        new InlineProducer(
+            componentMonitorProvider, executor, Futures.immediateFuture(42), "the answer: ");
+
+    ListenableFuture<String> future = producer.get();
+    assertThat(future.get()).isEqualTo("the answer: 42");
+    assertThat(executor.executions).isEqualTo(0);
+    InOrder order = inOrder(monitor);
+    order.verify(monitor).requested();
+    order.verify(monitor).ready();
+    order.verify(monitor).methodStarting();
+    order.verify(monitor).methodFinished();
+    order.verify(monitor).addCallbackTo(anyListenableFuture());
+    order.verify(monitor).succeeded("the answer: 42");
+    verifyNoMoreInteractions(monitor);
+  }
+
+  @Test
+  public void inlineWhenReady_dependenciesPending() throws Exception {
+    RecordingExecutor executor = new RecordingExecutor();
+    SettableFuture<Integer> dependency = SettableFuture.create();
+    Producer<String> producer =
+        new InlineProducer(componentMonitorProvider, executor, dependency, "the answer: ");
+
+    ListenableFuture<String> future = producer.get();
+    assertThat(future.isDone()).isFalse();
+    dependency.set(42);
+    assertThat(future.get()).isEqualTo("the answer: 42");
+    assertThat(executor.executions).isEqualTo(1);
+    InOrder order = inOrder(monitor);
+    order.verify(monitor).requested();
+    order.verify(monitor).addCallbackTo(anyListenableFuture());
+    order.verify(monitor).ready();
+    order.verify(monitor).methodStarting();
+    order.verify(monitor).methodFinished();
+    order.verify(monitor).succeeded("the answer: 42");
+    verifyNoMoreInteractions(monitor);
+  }
+
+  @Test
+  public void inlineWhenReady_dependencyFailed() throws Exception {
+    RecordingExecutor executor = new RecordingExecutor();
+    Throwable t = new RuntimeException("monkey");
+    Producer<String> producer =
+        new InlineProducer(
+            componentMonitorProvider,
+            executor,
+            Futures.<Integer>immediateFailedFuture(t),
+            "the answer: ");
+
+    ListenableFuture<String> future = producer.get();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isSameAs(t);
+    }
+    assertThat(executor.executions).isEqualTo(0);
+    verify(monitor).requested();
+    verify(monitor).ready();
+    verify(monitor).addCallbackTo(anyListenableFuture());
+    verify(monitor).failed(t);
+    verifyNoMoreInteractions(monitor);
+  }
+
+  static final class RecordingExecutor implements Executor {
+    int executions;
+
+    @Override
+    public void execute(Runnable runnable) {
+      executions++;
+      runnable.run();
+    }
+  }
+
+  static final class InlineProducer extends AbstractProducesMethodProducer<Integer, String> {
+    private final ListenableFuture<Integer> dependency;
+    private final String prefix;
+
+    InlineProducer(
+        Provider<ProductionComponentMonitor> componentMonitorProvider,
+        final Executor executor,
+        ListenableFuture<Integer> dependency,
+        String prefix) {
+      super(
+          componentMonitorProvider,
+          null, // token
+          new Provider<Executor>() {
+            @Override
+            public Executor get() {
+              return executor;
+            }
+          },
+          true); // inlineWhenReady
+      this.dependency = dependency;
+      this.prefix = prefix;
+    }
+
+    @Override
+    protected ListenableFuture<Integer> collectDependencies() {
+      return dependency;
+    }
+
+    @Override
+    protected ListenableFuture<String> callProducesMethod(Integer asyncDependencies) {
+      return Futures.immediateFuture(prefix + asyncDependencies);
+    }
+  }
+
   static final class DelegateProducer<T> extends AbstractProducesMethodProducer<Void, T> {
     private final ListenableFuture<T> delegate;
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link CombiningFuture}.
+ */
+@RunWith(JUnit4.class)
+public class CombiningFutureTest {
+  @Test
+  public void combinesInInputOrder() throws Exception {
+    SettableFuture<String> first = SettableFuture.create();
+    SettableFuture<String> second = SettableFuture.create();
+    SettableFuture<String> third = SettableFuture.create();
+    ListenableFuture<List<Object>> future = listOf(first, second, third);
+
+    third.set("c");
+    first.set("a");
+    assertThat(future.isDone()).isFalse();
+    second.set("b");
+    assertThat(future.get()).containsExactly("a", "b", "c").inOrder();
+  }
+
+  @Test
+  public void noInputs() throws Exception {
+    assertThat(listOf().get()).isEmpty();
+  }
+
+  @Test
+  public void inputFailure_failsImmediately() throws Exception {
+    SettableFuture<String> first = SettableFuture.create();
+    SettableFuture<String> second = SettableFuture.create();
+    ListenableFuture<List<Object>> future = listOf(first, second);
+
+    RuntimeException failure = new RuntimeException("monkey");
+    second.setException(failure);
+    assertThat(future.isDone()).isTrue();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e).hasCauseThat().isSameAs(failure);
+    }
+    assertThat(first.isCancelled()).isFalse();
+  }
+
+  @Test
+  public void inputCancellation_cancelsFuture() throws Exception {
+    SettableFuture<String> first = SettableFuture.create();
+    SettableFuture<String> second = SettableFuture.create();
+    ListenableFuture<List<Object>> future = listOf(first, second);
+
+    first.cancel(false);
+    assertThat(future.isCancelled()).isTrue();
+    assertThat(second.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void cancellation_cancelsInputs() throws Exception {
+    SettableFuture<String> first = SettableFuture.create();
+    SettableFuture<String> second = SettableFuture.create();
+    ListenableFuture<List<Object>> future = listOf(first, second);
+
+    first.set("a");
+    assertThat(future.cancel(true)).isTrue();
+    assertThat(second.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void combineFailure_failsFuture() throws Exception {
+    final RuntimeException failure = new RuntimeException("monkey");
+    SettableFuture<String> input = SettableFuture.create();
+    CombiningFuture<Object> future =
+        new CombiningFuture<Object>(new ListenableFuture<?>[] {input}) {
+          @Override
+          Object combine(Object[] values) {
+            throw failure;
+          }
+        };
+    future.start();
+
+    input.set("a");
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e).hasCauseThat().isSameAs(failure);
+    }
+  }
+
+  private static ListenableFuture<List<Object>> listOf(ListenableFuture<?>... inputs) {
+    CombiningFuture<List<Object>> future =
+        new CombiningFuture<List<Object>>(inputs) {
+          @Override
+          List<Object> combine(Object[] values) {
+            return Arrays.asList(values);
+          }
+        };
+    future.start();
+    return future;
+  }
+}
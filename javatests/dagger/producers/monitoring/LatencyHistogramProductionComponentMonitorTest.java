@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.testing.FakeTicker;
+import dagger.producers.monitoring.LatencyHistogramProductionComponentMonitor.ProducerStats;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class LatencyHistogramProductionComponentMonitorTest {
+  private static final class ProducerClassA {}
+
+  private static final class ProducerClassB {}
+
+  private static final ProducerToken TOKEN_A = ProducerToken.create(ProducerClassA.class);
+  private static final ProducerToken TOKEN_B = ProducerToken.create(ProducerClassB.class);
+
+  private FakeTicker ticker;
+  private LatencyHistogramProductionComponentMonitor.Factory monitorFactory;
+
+  @Before
+  public void setUp() {
+    ticker = new FakeTicker();
+    monitorFactory = new LatencyHistogramProductionComponentMonitor.Factory(ticker);
+  }
+
+  @Test
+  public void normalExecution() {
+    ProductionComponentMonitor monitor = monitorFactory.create(new Object());
+    ProducerMonitor producerMonitorA = monitor.producerMonitorFor(TOKEN_A);
+    ProducerMonitor producerMonitorB = monitor.producerMonitorFor(TOKEN_B);
+    producerMonitorA.methodStarting();
+    ticker.advance(5);
+    producerMonitorA.methodFinished();
+    ticker.advance(2);
+    producerMonitorA.succeeded(new Object());
+    producerMonitorB.methodStarting();
+    ticker.advance(3);
+    producerMonitorB.methodFinished();
+    producerMonitorB.failed(new RuntimeException("monkey"));
+
+    ImmutableMap<ProducerToken, ProducerStats> snapshot = monitorFactory.snapshot();
+    assertThat(snapshot.keySet()).containsExactly(TOKEN_A, TOKEN_B);
+
+    ProducerStats statsA = snapshot.get(TOKEN_A);
+    assertThat(statsA.successCount()).isEqualTo(1);
+    assertThat(statsA.failureCount()).isEqualTo(0);
+    assertThat(statsA.skipCount()).isEqualTo(0);
+    assertThat(statsA.methodTime().count()).isEqualTo(1);
+    assertThat(statsA.methodTime().maxNanos()).isEqualTo(5);
+    assertThat(statsA.latency().count()).isEqualTo(1);
+    assertThat(statsA.latency().totalNanos()).isEqualTo(7);
+
+    ProducerStats statsB = snapshot.get(TOKEN_B);
+    assertThat(statsB.successCount()).isEqualTo(0);
+    assertThat(statsB.failureCount()).isEqualTo(1);
+    assertThat(statsB.latency().maxNanos()).isEqualTo(3);
+  }
+
+  @Test
+  public void skipped() {
+    ProductionComponentMonitor monitor = monitorFactory.create(new Object());
+    monitor.producerMonitorFor(TOKEN_A).failed(new RuntimeException("monkey"));
+
+    ProducerStats stats = monitorFactory.snapshot().get(TOKEN_A);
+    assertThat(stats.skipCount()).isEqualTo(1);
+    assertThat(stats.failureCount()).isEqualTo(0);
+    assertThat(stats.latency().count()).isEqualTo(0);
+  }
+
+  @Test
+  public void componentsShareHistograms() {
+    for (int i = 1; i <= 100; i++) {
+      ProducerMonitor producerMonitor =
+          monitorFactory.create(new Object()).producerMonitorFor(TOKEN_A);
+      producerMonitor.methodStarting();
+      ticker.advance(i * 1000);
+      producerMonitor.methodFinished();
+      producerMonitor.succeeded(new Object());
+    }
+
+    LatencyHistogram latency = monitorFactory.snapshot().get(TOKEN_A).latency();
+    assertThat(latency.count()).isEqualTo(100);
+    assertThat(latency.totalNanos()).isEqualTo(5050 * 1000);
+    assertThat(latency.maxNanos()).isEqualTo(100000);
+    assertThat(latency.percentileNanos(100)).isEqualTo(100000);
+    assertThat((double) latency.percentileNanos(50)).isWithin(50000 * 0.125).of(50000);
+    assertThat((double) latency.percentileNanos(99)).isWithin(99000 * 0.125).of(99000);
+  }
+
+  @Test
+  public void emptySnapshot() {
+    monitorFactory.create(new Object());
+    assertThat(monitorFactory.snapshot()).isEmpty();
+  }
+}
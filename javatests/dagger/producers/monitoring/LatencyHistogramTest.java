@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+import static dagger.producers.monitoring.LatencyHistogram.BUCKET_COUNT;
+import static dagger.producers.monitoring.LatencyHistogram.bucketIndex;
+import static dagger.producers.monitoring.LatencyHistogram.highestValueInBucket;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class LatencyHistogramTest {
+  @Test
+  public void bucketsAreContiguous() {
+    assertThat(bucketIndex(0)).isEqualTo(0);
+    for (int i = 1; i < BUCKET_COUNT - 1; i++) {
+      long lowest = highestValueInBucket(i - 1) + 1;
+      assertThat(bucketIndex(lowest)).isEqualTo(i);
+      assertThat(bucketIndex(highestValueInBucket(i))).isEqualTo(i);
+    }
+    assertThat(bucketIndex(Long.MAX_VALUE)).isEqualTo(BUCKET_COUNT - 1);
+  }
+
+  @Test
+  public void bucketsArePrecise() {
+    for (int i = 1; i < BUCKET_COUNT - 1; i++) {
+      long lowest = highestValueInBucket(i - 1) + 1;
+      long highest = highestValueInBucket(i);
+      assertThat((double) highest - lowest).isAtMost(lowest * 0.125);
+    }
+  }
+
+  @Test
+  public void negativeLatency_recordedAsZero() {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    histogram.record(-5);
+    LatencyHistogram snapshot = histogram.snapshot();
+    assertThat(snapshot.count()).isEqualTo(1);
+    assertThat(snapshot.totalNanos()).isEqualTo(0);
+    assertThat(snapshot.percentileNanos(50)).isEqualTo(0);
+  }
+
+  @Test
+  public void percentiles() {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    for (int i = 0; i < 10; i++) {
+      histogram.record(7);
+    }
+    histogram.record(1000);
+    LatencyHistogram snapshot = histogram.snapshot();
+    assertThat(snapshot.percentileNanos(0)).isEqualTo(7);
+    assertThat(snapshot.percentileNanos(90)).isEqualTo(7);
+    assertThat(snapshot.percentileNanos(95)).isEqualTo(1000);
+    assertThat(snapshot.meanNanos()).isWithin(0.001).of(1070.0 / 11);
+  }
+
+  @Test
+  public void emptyHistogram() {
+    LatencyHistogram snapshot = new ConcurrentLatencyHistogram().snapshot();
+    assertThat(snapshot.count()).isEqualTo(0);
+    assertThat(snapshot.meanNanos()).isEqualTo(0.0);
+    assertThat(snapshot.percentileNanos(99)).isEqualTo(0);
+  }
+
+  @Test
+  public void percentileOutOfRange() {
+    LatencyHistogram snapshot = new ConcurrentLatencyHistogram().snapshot();
+    try {
+      snapshot.percentileNanos(101);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
@@ -22,6 +22,12 @@ BUILD_VARIANTS = {
         "-Adagger.fastInit=enabled",
         "-Adagger.experimentalAheadOfTimeSubcomponents=enabled",
     ],
+    "LockFreeScopedProviders": ["-Adagger.lockFreeScopedProviders=enabled"],
+    "FastInitAndLockFreeScopedProviders": [
+        "-Adagger.fastInit=enabled",
+        "-Adagger.lockFreeScopedProviders=enabled",
+    ],
+    "LazyFrameworkFields": ["-Adagger.lazyFrameworkFields=enabled"],
 }
 
 # TODO(ronshapiro): convert this to use bazel_common